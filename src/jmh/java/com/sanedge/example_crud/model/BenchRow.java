@@ -0,0 +1,61 @@
+package com.sanedge.example_crud.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * In-memory {@link Row} holding already-decoded values, so the benchmarks
+ * measure the mappers rather than the Postgres codec. Name lookups scan the
+ * column list, as the client's row description does.
+ */
+final class BenchRow implements Row {
+  private final List<String> columns;
+  private final List<Object> values;
+
+  BenchRow(List<String> columns, Object... values) {
+    this.columns = columns;
+    this.values = new ArrayList<>(Arrays.asList(values));
+  }
+
+  @Override
+  public String getColumnName(int pos) {
+    return pos >= 0 && pos < columns.size() ? columns.get(pos) : null;
+  }
+
+  @Override
+  public int getColumnIndex(String column) {
+    return columns.indexOf(column);
+  }
+
+  @Override
+  public Object getValue(int pos) {
+    return values.get(pos);
+  }
+
+  @Override
+  public Tuple addValue(Object value) {
+    values.add(value);
+    return this;
+  }
+
+  @Override
+  public int size() {
+    return values.size();
+  }
+
+  @Override
+  public void clear() {
+    values.clear();
+  }
+
+  @Override
+  public List<Class<?>> types() {
+    List<Class<?>> types = new ArrayList<>(values.size());
+    values.forEach(value -> types.add(value != null ? value.getClass() : Object.class));
+    return types;
+  }
+}
@@ -0,0 +1,141 @@
+package com.sanedge.example_crud.model;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.sqlclient.Row;
+
+/**
+ * Per-row cost of mapping a page of users: looking every column up by name
+ * on each row, as the mappers used to, against resolving {@link User.Columns}
+ * once per result set and reading by index. Scores are per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+  private static final int ROWS = 100;
+
+  private static final List<String> LISTING_COLUMNS = List.of(
+      "user_id", "firstname", "lastname", "email", "created_at", "updated_at", "deleted_at", "total_count");
+  private static final List<String> WITH_ROLES_COLUMNS = List.of(
+      "user_id", "firstname", "lastname", "email", "created_at", "updated_at", "deleted_at",
+      "role_ids", "role_names", "role_created_ats", "role_updated_ats");
+
+  private List<Row> listing;
+  private List<Row> withRoles;
+
+  @Setup
+  public void setUp() {
+    OffsetDateTime at = OffsetDateTime.of(2024, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    listing = new ArrayList<>(ROWS);
+    withRoles = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      listing.add(new BenchRow(LISTING_COLUMNS,
+          i, "First" + i, "Last" + i, "user" + i + "@example.com", at, at, null, (long) ROWS));
+      withRoles.add(new BenchRow(WITH_ROLES_COLUMNS,
+          i, "First" + i, "Last" + i, "user" + i + "@example.com", at, at, null,
+          new Integer[] { 1, 2 }, new String[] { "ADMIN", "USER" },
+          new OffsetDateTime[] { at, at }, new OffsetDateTime[] { at, at }));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public List<User> listingByName() {
+    List<User> users = new ArrayList<>(listing.size());
+    for (Row row : listing) {
+      users.add(byName(row));
+    }
+    return users;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public List<User> listingByIndex() {
+    List<User> users = new ArrayList<>(listing.size());
+    User.Columns columns = null;
+    for (Row row : listing) {
+      if (columns == null) {
+        columns = User.Columns.of(row);
+      }
+      users.add(User.fromRow(row, columns));
+    }
+    return users;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public List<User> withRolesByName() {
+    List<User> users = new ArrayList<>(withRoles.size());
+    for (Row row : withRoles) {
+      User user = byName(row);
+      Integer[] roleIds = row.getArrayOfIntegers("role_ids");
+      String[] roleNames = row.getArrayOfStrings("role_names");
+      OffsetDateTime[] createdAts = row.getArrayOfOffsetDateTimes("role_created_ats");
+      OffsetDateTime[] updatedAts = row.getArrayOfOffsetDateTimes("role_updated_ats");
+
+      List<Role> roles = new ArrayList<>(roleIds.length);
+      for (int i = 0; i < roleIds.length; i++) {
+        roles.add(Role.builder()
+            .roleId(roleIds[i])
+            .roleName(roleNames[i])
+            .createdAt(Timestamps.toInstant(createdAts[i]))
+            .updatedAt(Timestamps.toInstant(updatedAts[i]))
+            .build());
+      }
+      user.setRoles(roles);
+      users.add(user);
+    }
+    return users;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public List<User> withRolesByIndex() {
+    List<User> users = new ArrayList<>(withRoles.size());
+    User.Columns columns = null;
+    for (Row row : withRoles) {
+      if (columns == null) {
+        columns = User.Columns.of(row);
+      }
+      users.add(User.fromRowWithRoles(row, columns));
+    }
+    return users;
+  }
+
+  /**
+   * The former per-row mapping: every column is found by name on every row.
+   */
+  private static User byName(Row row) {
+    return User.builder()
+        .userId(row.getInteger("user_id"))
+        .firstname(row.getString("firstname"))
+        .lastname(row.getString("lastname"))
+        .email(row.getString("email"))
+        .password(row.getColumnIndex("password") != -1 ? row.getString("password") : null)
+        .createdAt(Timestamps.toInstant(row.getOffsetDateTime("created_at")))
+        .updatedAt(Timestamps.toInstant(row.getOffsetDateTime("updated_at")))
+        .deletedAt(Timestamps.toInstant(row.getOffsetDateTime("deleted_at")))
+        .build();
+  }
+}
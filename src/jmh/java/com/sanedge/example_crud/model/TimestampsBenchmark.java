@@ -0,0 +1,84 @@
+package com.sanedge.example_crud.model;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Per-column cost of the timestamp mapping: the former
+ * {@code LocalDateTime -> java.sql.Timestamp -> String} path against the
+ * current {@code OffsetDateTime -> Instant -> epoch millis} one. Run with
+ * {@code -prof gc} (the profile's default) to compare allocation per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimestampsBenchmark {
+  private LocalDateTime column;
+  private OffsetDateTime columnTz;
+  private Instant instant;
+  private JsonObject cachedLegacy;
+  private JsonObject cachedEpoch;
+
+  @Setup
+  public void setUp() {
+    column = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_456_000);
+    columnTz = column.atOffset(ZoneOffset.UTC);
+    instant = columnTz.toInstant();
+
+    cachedLegacy = new JsonObject().put("createdAt", Timestamp.valueOf(column).toString());
+    cachedEpoch = new JsonObject();
+    Timestamps.toJson(cachedEpoch, "createdAt", instant);
+  }
+
+  @Benchmark
+  public Timestamp legacyReadColumn() {
+    return Timestamp.valueOf(column);
+  }
+
+  @Benchmark
+  public Instant readColumn() {
+    return Timestamps.toInstant(columnTz);
+  }
+
+  @Benchmark
+  public JsonObject legacyWriteCache() {
+    return new JsonObject().put("createdAt", Timestamp.from(instant).toString());
+  }
+
+  @Benchmark
+  public JsonObject writeCache() {
+    JsonObject json = new JsonObject();
+    Timestamps.toJson(json, "createdAt", instant);
+    return json;
+  }
+
+  @Benchmark
+  public Timestamp legacyReadCache() {
+    return Timestamp.valueOf(cachedLegacy.getString("createdAt"));
+  }
+
+  @Benchmark
+  public Instant readCache() {
+    return Timestamps.fromJson(cachedEpoch, "createdAt");
+  }
+}
@@ -8,14 +8,20 @@ import io.vertx.redis.client.RedisOptions;
 public class RedisConfig {
 
   public static RedisAPI createClient(Vertx vertx) {
+    return RedisAPI.api(Redis.createClient(vertx, options()));
+  }
+
+  public static Redis createSubscriber(Vertx vertx) {
+    return Redis.createClient(vertx, options());
+  }
+
+  private static RedisOptions options() {
     String redisHost = System.getenv().getOrDefault("REDIS_HOST", "redis");
     int redisPort = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
     String redisPassword = System.getenv().getOrDefault("REDIS_PASSWORD", "dragon_knight");
 
-    RedisOptions options = new RedisOptions()
+    return new RedisOptions()
         .setConnectionString("redis://" + redisHost + ":" + redisPort)
         .setPassword(redisPassword);
-
-    return RedisAPI.api(Redis.createClient(vertx, options));
   }
 }
@@ -0,0 +1,57 @@
+package com.sanedge.example_crud.domain.requests;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.sanedge.example_crud.exception.BadRequestException;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RequestBody;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BatchIdsRequest {
+  public static final int MAX_IDS = Integer.parseInt(System.getenv().getOrDefault("BATCH_MAX_IDS", "1000"));
+
+  private List<Integer> ids;
+
+  public static BatchIdsRequest fromBody(RequestBody requestBody) {
+    JsonObject body;
+    try {
+      body = requestBody.asJsonObject();
+    } catch (DecodeException e) {
+      throw new BadRequestException("Request body must be a JSON object");
+    }
+    return fromBody(body);
+  }
+
+  public static BatchIdsRequest fromBody(JsonObject body) {
+    JsonArray array = body != null ? body.getJsonArray("ids") : null;
+    if (array == null || array.isEmpty()) {
+      throw new BadRequestException("ids must be a non-empty array");
+    }
+    if (array.size() > MAX_IDS) {
+      throw new BadRequestException("At most " + MAX_IDS + " ids per batch");
+    }
+
+    Set<Integer> ids = new LinkedHashSet<>();
+    for (Object value : array) {
+      // Decimals decode as Double, values past int range as Long or BigInteger.
+      if (!(value instanceof Integer id)) {
+        throw new BadRequestException("ids must contain 32-bit integers only");
+      }
+      ids.add(id);
+    }
+
+    return BatchIdsRequest.builder().ids(List.copyOf(ids)).build();
+  }
+
+  public Integer[] toArray() {
+    return ids.toArray(new Integer[0]);
+  }
+}
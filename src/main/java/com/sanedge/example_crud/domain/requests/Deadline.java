@@ -0,0 +1,38 @@
+package com.sanedge.example_crud.domain.requests;
+
+/**
+ * Point in time by which a request's database work has to finish. A null
+ * deadline means no limit.
+ *
+ * It also names the calling session, if any, so the request's reads can see
+ * that session's own recent writes.
+ */
+public final class Deadline {
+  private final long expiresAtMillis;
+  private final String session;
+
+  private Deadline(long expiresAtMillis, String session) {
+    this.expiresAtMillis = expiresAtMillis;
+    this.session = session;
+  }
+
+  public static Deadline after(long timeoutMs) {
+    return after(timeoutMs, null);
+  }
+
+  public static Deadline after(long timeoutMs, String session) {
+    return new Deadline(System.currentTimeMillis() + timeoutMs, session);
+  }
+
+  public long remainingMs() {
+    return expiresAtMillis - System.currentTimeMillis();
+  }
+
+  public boolean isExpired() {
+    return remainingMs() <= 0;
+  }
+
+  public String session() {
+    return session;
+  }
+}
@@ -0,0 +1,29 @@
+package com.sanedge.example_crud.domain.response.user;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportSummary {
+  private long total;
+  private long imported;
+  private long skipped;
+  private long failed;
+  private List<RowError> errors;
+
+  @Data
+  @AllArgsConstructor
+  @NoArgsConstructor
+  public static class RowError {
+    private long line;
+    private String email;
+    private String message;
+  }
+}
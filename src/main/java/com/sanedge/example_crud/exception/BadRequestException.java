@@ -0,0 +1,7 @@
+package com.sanedge.example_crud.exception;
+
+public class BadRequestException extends ApiException {
+  public BadRequestException(String message) {
+    super(message, 400);
+  }
+}
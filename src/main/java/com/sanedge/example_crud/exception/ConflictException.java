@@ -0,0 +1,7 @@
+package com.sanedge.example_crud.exception;
+
+public class ConflictException extends ApiException {
+  public ConflictException(String message) {
+    super(message, 409);
+  }
+}
@@ -0,0 +1,7 @@
+package com.sanedge.example_crud.exception;
+
+public class DeadlineExceededException extends ApiException {
+  public DeadlineExceededException(String message) {
+    super(message, 504);
+  }
+}
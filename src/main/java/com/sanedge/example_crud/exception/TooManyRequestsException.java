@@ -0,0 +1,7 @@
+package com.sanedge.example_crud.exception;
+
+public class TooManyRequestsException extends ApiException {
+  public TooManyRequestsException(String message) {
+    super(message, 429);
+  }
+}
@@ -0,0 +1,19 @@
+package com.sanedge.example_crud.handler;
+
+import com.sanedge.example_crud.domain.response.api.ApiResponse;
+import com.sanedge.example_crud.repository.SlowQueryObserver;
+
+import io.vertx.core.json.Json;
+import io.vertx.ext.web.RoutingContext;
+import lombok.RequiredArgsConstructor;
+
+@RequiredArgsConstructor
+public class AdminHandler {
+  private final SlowQueryObserver slowQueryObserver;
+
+  public void slowQueries(RoutingContext ctx) {
+    ctx.response()
+        .putHeader("Content-Type", "application/json")
+        .end(Json.encode(ApiResponse.success("Latest slow query plans", slowQueryObserver.latestPlans())));
+  }
+}
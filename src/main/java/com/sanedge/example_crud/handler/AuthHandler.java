@@ -1,7 +1,11 @@
 package com.sanedge.example_crud.handler;
 
 import com.sanedge.example_crud.domain.requests.user.CreateUserRequest;
+import com.sanedge.example_crud.domain.response.api.ApiResponse;
+import com.sanedge.example_crud.domain.response.user.UserResponse;
+import com.sanedge.example_crud.middleware.DeadlineMiddleware;
 import com.sanedge.example_crud.service.AuthService;
+import com.sanedge.example_crud.service.SessionCache;
 import com.sanedge.example_crud.service.UserService;
 
 import io.vertx.core.json.Json;
@@ -11,8 +15,11 @@ import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
 public class AuthHandler {
+  private static final String ME_MESSAGE = "User fetched successfully";
+
   private final AuthService service;
   private final UserService userService;
+  private final SessionCache sessionCache;
 
   public void login(RoutingContext ctx) {
     JsonObject body = ctx.body().asJsonObject();
@@ -34,7 +41,8 @@ public class AuthHandler {
     service
         .register(register)
         .onSuccess(user -> ctx.response().setStatusCode(201).putHeader("Content-Type", "application/json")
-            .end(Json.encode(user)));
+            .end(Json.encode(user)))
+        .onFailure(ctx::fail);
   }
 
   public void refreshToken(RoutingContext ctx) {
@@ -48,8 +56,27 @@ public class AuthHandler {
   public void getMe(RoutingContext ctx) {
     Integer userid = ctx.user().principal().getInteger("userId");
 
-    userService.getUserById(userid)
-        .onSuccess(user -> ctx.response().setStatusCode(200).end(Json.encode(user)));
+    UserResponse cached = sessionCache.get(userid);
+    if (cached != null) {
+      ctx.response().setStatusCode(200).putHeader("Content-Type", "application/json")
+          .end(Json.encode(ApiResponse.success(ME_MESSAGE, cached)));
+      return;
+    }
+
+    long readStarted = sessionCache.readStarted();
+    userService.getUserById(userid, DeadlineMiddleware.current(ctx))
+        .onSuccess(user -> {
+          if (user.data() == null) {
+            ctx.response().setStatusCode(200).putHeader("Content-Type", "application/json")
+                .end(Json.encode(user));
+            return;
+          }
+          sessionCache.put(userid, user.data(), readStarted);
+          // Same body whether the profile came from this node's cache, Redis or the database.
+          ctx.response().setStatusCode(200).putHeader("Content-Type", "application/json")
+              .end(Json.encode(ApiResponse.success(ME_MESSAGE, user.data())));
+        })
+        .onFailure(ctx::fail);
   }
 
   public void logout(RoutingContext ctx) {
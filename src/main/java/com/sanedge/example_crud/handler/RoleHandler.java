@@ -1,8 +1,10 @@
 package com.sanedge.example_crud.handler;
 
+import com.sanedge.example_crud.domain.requests.BatchIdsRequest;
 import com.sanedge.example_crud.domain.requests.role.CreateRoleRequest;
 import com.sanedge.example_crud.domain.requests.role.FindAllRoles;
 import com.sanedge.example_crud.domain.requests.role.UpdateRoleRequest;
+import com.sanedge.example_crud.middleware.DeadlineMiddleware;
 import com.sanedge.example_crud.service.RoleService;
 
 import io.vertx.core.json.Json;
@@ -17,43 +19,47 @@ public class RoleHandler {
   public void findAll(RoutingContext ctx) {
     FindAllRoles req = mapFindAllRoles(ctx);
 
-    service.getAllRoles(req)
+    service.getAllRoles(req, DeadlineMiddleware.current(ctx))
         .onSuccess(resp -> {
           ctx.response()
               .putHeader("Content-Type", "application/json")
               .end(Json.encode(resp));
-        });
+        })
+        .onFailure(ctx::fail);
   }
 
   public void findActive(RoutingContext ctx) {
     FindAllRoles req = mapFindAllRoles(ctx);
 
-    service.getActiveRoles(req)
+    service.getActiveRoles(req, DeadlineMiddleware.current(ctx))
         .onSuccess(resp -> {
           ctx.response()
               .putHeader("Content-Type", "application/json")
               .end(Json.encode(resp));
-        });
+        })
+        .onFailure(ctx::fail);
   }
 
   public void findTrashed(RoutingContext ctx) {
     FindAllRoles req = mapFindAllRoles(ctx);
 
-    service.getTrashedRoles(req)
+    service.getTrashedRoles(req, DeadlineMiddleware.current(ctx))
         .onSuccess(resp -> {
           ctx.response()
               .putHeader("Content-Type", "application/json")
               .end(Json.encode(resp));
-        });
+        })
+        .onFailure(ctx::fail);
   }
 
   public void findById(RoutingContext ctx) {
     Integer roleId = Integer.parseInt(ctx.pathParam("id"));
-    service.getRoleById(roleId)
+    service.getRoleById(roleId, DeadlineMiddleware.current(ctx))
         .onSuccess(role -> {
           ctx.response().setStatusCode(200).putHeader("Content-Type", "application/json")
               .end(Json.encode(role));
-        });
+        })
+        .onFailure(ctx::fail);
   }
 
   public void create(RoutingContext ctx) {
@@ -61,11 +67,12 @@ public class RoleHandler {
 
     CreateRoleRequest req = CreateRoleRequest.builder().name(body.getString("roleName")).build();
 
-    service.createRole(req)
+    service.createRole(req, DeadlineMiddleware.current(ctx))
         .onSuccess(created -> ctx.response()
             .putHeader("Content-Type", "application/json")
             .setStatusCode(200)
-            .end(Json.encode(created)));
+            .end(Json.encode(created)))
+        .onFailure(ctx::fail);
   }
 
   public void update(RoutingContext ctx) {
@@ -75,26 +82,51 @@ public class RoleHandler {
     UpdateRoleRequest updateRoleRequest = UpdateRoleRequest.builder().roleId(roleId).name(body.getString("roleName"))
         .build();
 
-    service.updateRole(updateRoleRequest)
-        .onSuccess(v -> ctx.response().setStatusCode(200).end(Json.encode(v)));
+    service.updateRole(updateRoleRequest, DeadlineMiddleware.current(ctx))
+        .onSuccess(v -> ctx.response().setStatusCode(200).end(Json.encode(v)))
+        .onFailure(ctx::fail);
   }
 
   public void trashed(RoutingContext ctx) {
     Integer roleId = Integer.parseInt(ctx.pathParam("id"));
-    service.trashed(roleId)
-        .onSuccess(v -> ctx.response().setStatusCode(200).end(Json.encode(v)));
+    service.trashed(roleId, DeadlineMiddleware.current(ctx))
+        .onSuccess(v -> ctx.response().setStatusCode(200).end(Json.encode(v)))
+        .onFailure(ctx::fail);
   }
 
   public void restore(RoutingContext ctx) {
     Integer roleId = Integer.parseInt(ctx.pathParam("id"));
-    service.restore(roleId)
-        .onSuccess(v -> ctx.response().setStatusCode(200).end(Json.encode(v)));
+    service.restore(roleId, DeadlineMiddleware.current(ctx))
+        .onSuccess(v -> ctx.response().setStatusCode(200).end(Json.encode(v)))
+        .onFailure(ctx::fail);
   }
 
   public void deletePermanent(RoutingContext ctx) {
     Integer roleId = Integer.parseInt(ctx.pathParam("id"));
-    service.deletePermanent(roleId)
-        .onSuccess(v -> ctx.response().setStatusCode(200).end(Json.encode(v)));
+    service.deletePermanent(roleId, DeadlineMiddleware.current(ctx))
+        .onSuccess(v -> ctx.response().setStatusCode(200).end(Json.encode(v)))
+        .onFailure(ctx::fail);
+  }
+
+  public void trashedBatch(RoutingContext ctx) {
+    BatchIdsRequest req = BatchIdsRequest.fromBody(ctx.body());
+    service.trashedBatch(req, DeadlineMiddleware.current(ctx))
+        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)))
+        .onFailure(ctx::fail);
+  }
+
+  public void restoreBatch(RoutingContext ctx) {
+    BatchIdsRequest req = BatchIdsRequest.fromBody(ctx.body());
+    service.restoreBatch(req, DeadlineMiddleware.current(ctx))
+        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)))
+        .onFailure(ctx::fail);
+  }
+
+  public void deletePermanentBatch(RoutingContext ctx) {
+    BatchIdsRequest req = BatchIdsRequest.fromBody(ctx.body());
+    service.deletePermanentBatch(req, DeadlineMiddleware.current(ctx))
+        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)))
+        .onFailure(ctx::fail);
   }
 
   private FindAllRoles mapFindAllRoles(RoutingContext ctx) {
@@ -1,10 +1,18 @@
 package com.sanedge.example_crud.handler;
 
+import java.util.Locale;
+
+import com.sanedge.example_crud.domain.requests.BatchIdsRequest;
 import com.sanedge.example_crud.domain.requests.user.CreateUserRequest;
 import com.sanedge.example_crud.domain.requests.user.FindAllUsers;
 import com.sanedge.example_crud.domain.requests.user.UpdateUserRequest;
+import com.sanedge.example_crud.domain.response.api.ApiResponse;
+import com.sanedge.example_crud.exception.BadRequestException;
+import com.sanedge.example_crud.middleware.DeadlineMiddleware;
+import com.sanedge.example_crud.service.UserImportService;
 import com.sanedge.example_crud.service.UserService;
 
+import io.vertx.core.http.HttpServerResponse;
 import io.vertx.core.json.Json;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
@@ -13,38 +21,90 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class UserHandler {
   private final UserService service;
+  private final UserImportService importService;
 
   public void findAll(RoutingContext ctx) {
     FindAllUsers req = mapFindAllUsers(ctx);
 
-    service.getAllUsers(req)
+    service.getAllUsers(req, DeadlineMiddleware.current(ctx))
         .onSuccess(resp -> ctx.response().putHeader("Content-Type", "application/json").setStatusCode(200)
-            .end(Json.encode(resp)));
+            .end(Json.encode(resp)))
+        .onFailure(ctx::fail);
   }
 
   public void findActive(RoutingContext ctx) {
     FindAllUsers req = mapFindAllUsers(ctx);
 
-    service.getActiveUsers(req)
+    service.getActiveUsers(req, DeadlineMiddleware.current(ctx))
         .onSuccess(resp -> ctx.response().putHeader("Content-Type", "application/json").setStatusCode(200)
-            .end(Json.encode(resp)));
+            .end(Json.encode(resp)))
+        .onFailure(ctx::fail);
   }
 
   public void findTrashed(RoutingContext ctx) {
     FindAllUsers req = mapFindAllUsers(ctx);
 
-    service.getTrashedUsers(req)
+    service.getTrashedUsers(req, DeadlineMiddleware.current(ctx))
         .onSuccess(resp -> ctx.response().putHeader("Content-Type", "application/json").setStatusCode(200)
-            .end(Json.encode(resp)));
+            .end(Json.encode(resp)))
+        .onFailure(ctx::fail);
+  }
+
+  public void export(RoutingContext ctx) {
+    String format = ctx.queryParams().contains("format")
+        ? ctx.queryParams().get("format").toLowerCase(Locale.ROOT)
+        : UserService.EXPORT_FORMAT_NDJSON;
+
+    if (!UserService.EXPORT_FORMAT_NDJSON.equals(format) && !UserService.EXPORT_FORMAT_CSV.equals(format)) {
+      ctx.fail(new BadRequestException("Unsupported export format: " + format));
+      return;
+    }
+
+    HttpServerResponse response = ctx.response()
+        .setChunked(true)
+        .putHeader("Content-Type", UserService.EXPORT_FORMAT_CSV.equals(format) ? "text/csv" : "application/x-ndjson")
+        .putHeader("Content-Disposition", "attachment; filename=\"users." + format + "\"");
+
+    service.exportUsers(format, response)
+        .onSuccess(count -> response.end())
+        .onFailure(err -> {
+          if (response.headWritten()) {
+            // Part of the body is already on the wire; abort so the client sees a broken download.
+            response.reset();
+          } else {
+            response.headers().remove("Content-Disposition");
+            ctx.fail(err);
+          }
+        });
+  }
+
+  public void importUsers(RoutingContext ctx) {
+    String contentType = ctx.request().getHeader("Content-Type");
+    String format = ctx.queryParams().contains("format")
+        ? ctx.queryParams().get("format").toLowerCase(Locale.ROOT)
+        : contentType != null && contentType.startsWith("text/csv")
+            ? UserImportService.FORMAT_CSV
+            : UserImportService.FORMAT_NDJSON;
+
+    if (!UserImportService.FORMAT_NDJSON.equals(format) && !UserImportService.FORMAT_CSV.equals(format)) {
+      ctx.fail(new BadRequestException("Unsupported import format: " + format));
+      return;
+    }
+
+    importService.importUsers(ctx.request(), format)
+        .onSuccess(summary -> ctx.response().putHeader("Content-Type", "application/json").setStatusCode(200)
+            .end(Json.encode(ApiResponse.success("Users imported", summary))))
+        .onFailure(ctx::fail);
   }
 
   public void findById(RoutingContext ctx) {
     Integer userId = Integer.parseInt(ctx.pathParam("id"));
-    service.getUserById(userId)
+    service.getUserById(userId, DeadlineMiddleware.current(ctx))
         .onSuccess(resp -> {
           ctx.response().putHeader("Content-Type", "application/json")
               .end(Json.encode(resp));
-        });
+        })
+        .onFailure(ctx::fail);
   }
 
   public void create(RoutingContext ctx) {
@@ -57,10 +117,11 @@ public class UserHandler {
         .password(body.getString("password"))
         .build();
 
-    service.createUser(register)
+    service.createUser(register, DeadlineMiddleware.current(ctx))
         .onSuccess(created -> ctx.response()
             .putHeader("Content-Type", "application/json")
-            .setStatusCode(201).end(Json.encode(created)));
+            .setStatusCode(201).end(Json.encode(created)))
+        .onFailure(ctx::fail);
   }
 
   public void update(RoutingContext ctx) {
@@ -75,26 +136,51 @@ public class UserHandler {
         .password(body.getString("password"))
         .build();
 
-    service.updateUser(updateUserRequest)
-        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)));
+    service.updateUser(updateUserRequest, DeadlineMiddleware.current(ctx))
+        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)))
+        .onFailure(ctx::fail);
   }
 
   public void trashed(RoutingContext ctx) {
     Integer userId = Integer.parseInt(ctx.pathParam("id"));
-    service.trashed(userId)
-        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)));
+    service.trashed(userId, DeadlineMiddleware.current(ctx))
+        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)))
+        .onFailure(ctx::fail);
   }
 
   public void restore(RoutingContext ctx) {
     Integer userId = Integer.parseInt(ctx.pathParam("id"));
-    service.restore(userId)
-        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)));
+    service.restore(userId, DeadlineMiddleware.current(ctx))
+        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)))
+        .onFailure(ctx::fail);
   }
 
   public void deletePermanent(RoutingContext ctx) {
     Integer userId = Integer.parseInt(ctx.pathParam("id"));
-    service.deletePermanent(userId)
-        .onSuccess(v -> ctx.response().setStatusCode(200).end(Json.encode(v)));
+    service.deletePermanent(userId, DeadlineMiddleware.current(ctx))
+        .onSuccess(v -> ctx.response().setStatusCode(200).end(Json.encode(v)))
+        .onFailure(ctx::fail);
+  }
+
+  public void trashedBatch(RoutingContext ctx) {
+    BatchIdsRequest req = BatchIdsRequest.fromBody(ctx.body());
+    service.trashedBatch(req, DeadlineMiddleware.current(ctx))
+        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)))
+        .onFailure(ctx::fail);
+  }
+
+  public void restoreBatch(RoutingContext ctx) {
+    BatchIdsRequest req = BatchIdsRequest.fromBody(ctx.body());
+    service.restoreBatch(req, DeadlineMiddleware.current(ctx))
+        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)))
+        .onFailure(ctx::fail);
+  }
+
+  public void deletePermanentBatch(RoutingContext ctx) {
+    BatchIdsRequest req = BatchIdsRequest.fromBody(ctx.body());
+    service.deletePermanentBatch(req, DeadlineMiddleware.current(ctx))
+        .onSuccess(resp -> ctx.response().setStatusCode(200).end(Json.encode(resp)))
+        .onFailure(ctx::fail);
   }
 
   private FindAllUsers mapFindAllUsers(RoutingContext ctx) {
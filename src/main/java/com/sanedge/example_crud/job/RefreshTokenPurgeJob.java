@@ -0,0 +1,150 @@
+package com.sanedge.example_crud.job;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sanedge.example_crud.repository.RefreshTokenRepository;
+import com.sanedge.example_crud.service.RedisService;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+
+/**
+ * Periodically deletes expired rows from {@code refresh_tokens}.
+ *
+ * Only the node holding the Redis lease runs a pass. A pass deletes in
+ * bounded batches and widens the pause between batches when a batch is slow,
+ * so the purge yields to request traffic instead of competing with it.
+ */
+public class RefreshTokenPurgeJob {
+  private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPurgeJob.class);
+  private static final String LOCK_KEY = "lock:refresh-token-purge";
+
+  private final Vertx vertx;
+  private final RefreshTokenRepository repository;
+  private final RedisService redisService;
+  private final String nodeId = UUID.randomUUID().toString();
+
+  private final long intervalMs;
+  private final int batchSize;
+  private final int maxBatchesPerRun;
+  private final long batchPauseMs;
+  private final long maxBatchPauseMs;
+  private final long slowBatchMs;
+
+  private final LongCounter rowsPurged;
+  private final DoubleHistogram runDurationSeconds;
+
+  private long timerId = -1;
+  private boolean running;
+
+  public RefreshTokenPurgeJob(
+      Vertx vertx,
+      RefreshTokenRepository repository,
+      RedisService redisService,
+      OpenTelemetry openTelemetry) {
+    Meter meter = openTelemetry.getMeter("refresh-token-purge");
+
+    this.vertx = vertx;
+    this.repository = repository;
+    this.redisService = redisService;
+
+    this.intervalMs = Long.parseLong(System.getenv().getOrDefault("REFRESH_TOKEN_PURGE_INTERVAL_MS", "300000"));
+    this.batchSize = Integer.parseInt(System.getenv().getOrDefault("REFRESH_TOKEN_PURGE_BATCH_SIZE", "1000"));
+    this.maxBatchesPerRun = Integer.parseInt(System.getenv().getOrDefault("REFRESH_TOKEN_PURGE_MAX_BATCHES", "50"));
+    this.batchPauseMs = Long.parseLong(System.getenv().getOrDefault("REFRESH_TOKEN_PURGE_PAUSE_MS", "50"));
+    this.maxBatchPauseMs = Long.parseLong(System.getenv().getOrDefault("REFRESH_TOKEN_PURGE_MAX_PAUSE_MS", "5000"));
+    this.slowBatchMs = Long.parseLong(System.getenv().getOrDefault("REFRESH_TOKEN_PURGE_SLOW_BATCH_MS", "250"));
+
+    this.rowsPurged = meter.counterBuilder("refresh_tokens_purged_total")
+        .setDescription("Number of expired refresh tokens deleted by the purge job")
+        .build();
+    this.runDurationSeconds = meter.histogramBuilder("refresh_tokens_purge_duration_seconds")
+        .setDescription("Duration of a refresh token purge pass")
+        .setUnit("s")
+        .build();
+  }
+
+  public void start() {
+    logger.info("🧹 Refresh token purge scheduled every {} ms (batch size {})", intervalMs, batchSize);
+    timerId = vertx.setPeriodic(intervalMs, id -> tick());
+  }
+
+  public void stop() {
+    if (timerId != -1) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+  }
+
+  private void tick() {
+    if (running) {
+      logger.debug("Previous refresh token purge still running, skipping tick");
+      return;
+    }
+
+    // The lease is shorter than the interval so a crashed leader never blocks the next tick.
+    redisService.setIfAbsent(LOCK_KEY, nodeId, Duration.ofMillis(Math.max(1000, intervalMs - 1000)))
+        .onSuccess(acquired -> {
+          if (!acquired) {
+            logger.debug("Refresh token purge lease held by another node");
+            return;
+          }
+          runPurge();
+        })
+        .onFailure(err -> logger.warn("Failed to acquire refresh token purge lease: {}", err.getMessage()));
+  }
+
+  private void runPurge() {
+    running = true;
+    long startTime = System.nanoTime();
+
+    purgeBatches(0, 0L, batchPauseMs)
+        .onComplete(ar -> {
+          running = false;
+          double durationSeconds = (System.nanoTime() - startTime) / 1_000_000_000.0;
+          runDurationSeconds.record(durationSeconds);
+
+          if (ar.succeeded()) {
+            logger.info("🧹 Purged {} expired refresh tokens in {} ms",
+                ar.result(), Math.round(durationSeconds * 1000));
+          } else {
+            logger.error("Refresh token purge failed: {}", ar.cause().getMessage(), ar.cause());
+          }
+        });
+  }
+
+  private Future<Long> purgeBatches(int batch, long purged, long pauseMs) {
+    long batchStart = System.nanoTime();
+
+    return repository.deleteExpired(batchSize)
+        .compose(deleted -> {
+          rowsPurged.add(deleted);
+          long total = purged + deleted;
+
+          if (deleted < batchSize || batch + 1 >= maxBatchesPerRun) {
+            return Future.succeededFuture(total);
+          }
+
+          long batchMs = (System.nanoTime() - batchStart) / 1_000_000;
+          long nextPauseMs = batchMs > slowBatchMs
+              ? Math.min(pauseMs * 2, maxBatchPauseMs)
+              : batchPauseMs;
+
+          if (nextPauseMs > pauseMs) {
+            logger.debug("Refresh token purge batch took {} ms, backing off for {} ms", batchMs, nextPauseMs);
+          }
+
+          return vertx.timer(nextPauseMs, TimeUnit.MILLISECONDS)
+              .compose(v -> purgeBatches(batch + 1, total, nextPauseMs));
+        });
+  }
+}
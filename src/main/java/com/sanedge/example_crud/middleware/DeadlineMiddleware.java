@@ -0,0 +1,36 @@
+package com.sanedge.example_crud.middleware;
+
+import com.sanedge.example_crud.domain.requests.Deadline;
+
+import io.vertx.core.Handler;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Stamps a route's request with a {@link Deadline}. Handlers pass it to the
+ * service layer, and the repositories cancel statements still running when
+ * it expires. On authenticated routes the deadline also carries the caller's
+ * user id as its session.
+ */
+public final class DeadlineMiddleware {
+  private static final String CONTEXT_KEY = "deadline";
+
+  public static final long DEFAULT_TIMEOUT_MS = Long.parseLong(
+      System.getenv().getOrDefault("HTTP_DEADLINE_MS", "5000"));
+  public static final long BATCH_TIMEOUT_MS = Long.parseLong(
+      System.getenv().getOrDefault("HTTP_BATCH_DEADLINE_MS", "30000"));
+
+  private DeadlineMiddleware() {
+  }
+
+  public static Handler<RoutingContext> deadline(long timeoutMs) {
+    return ctx -> {
+      Object userId = ctx.user() != null ? ctx.user().principal().getValue("userId") : null;
+      ctx.put(CONTEXT_KEY, Deadline.after(timeoutMs, userId != null ? "user:" + userId : null));
+      ctx.next();
+    };
+  }
+
+  public static Deadline current(RoutingContext ctx) {
+    return ctx.get(CONTEXT_KEY);
+  }
+}
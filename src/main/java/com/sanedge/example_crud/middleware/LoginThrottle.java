@@ -0,0 +1,141 @@
+package com.sanedge.example_crud.middleware;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sanedge.example_crud.exception.TooManyRequestsException;
+import com.sanedge.example_crud.service.RedisService;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Admission control for {@code POST /login}. Attempts are charged against
+ * in-process buckets keyed by client IP and by email before any database or
+ * BCrypt work happens. When {@code LOGIN_THROTTLE_REDIS_ENABLED} is set the
+ * attempt is also counted in a Redis sliding window shared by all nodes.
+ */
+public class LoginThrottle implements Handler<RoutingContext> {
+  private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+  private static final AttributeKey<String> KEY_CLASS = AttributeKey.stringKey("key_class");
+
+  private final RedisService redisService;
+  private final StripedTokenBuckets ipBuckets;
+  private final StripedTokenBuckets emailBuckets;
+  private final LongCounter rejected;
+
+  private final boolean redisEnabled;
+  private final long windowMs;
+  private final int clusterIpLimit;
+  private final int clusterEmailLimit;
+  private final long retryAfterSeconds;
+
+  public LoginThrottle(RedisService redisService, OpenTelemetry openTelemetry) {
+    this.redisService = redisService;
+
+    int stripes = Integer.parseInt(System.getenv().getOrDefault("LOGIN_THROTTLE_STRIPES", "65536"));
+    this.ipBuckets = new StripedTokenBuckets(stripes,
+        Integer.parseInt(System.getenv().getOrDefault("LOGIN_THROTTLE_IP_BURST", "20")),
+        Integer.parseInt(System.getenv().getOrDefault("LOGIN_THROTTLE_IP_PER_MINUTE", "20")));
+    this.emailBuckets = new StripedTokenBuckets(stripes,
+        Integer.parseInt(System.getenv().getOrDefault("LOGIN_THROTTLE_EMAIL_BURST", "5")),
+        Integer.parseInt(System.getenv().getOrDefault("LOGIN_THROTTLE_EMAIL_PER_MINUTE", "5")));
+
+    this.redisEnabled = Boolean.parseBoolean(System.getenv().getOrDefault("LOGIN_THROTTLE_REDIS_ENABLED", "false"));
+    this.windowMs = Long.parseLong(System.getenv().getOrDefault("LOGIN_THROTTLE_WINDOW_MS", "60000"));
+    this.clusterIpLimit = Integer.parseInt(System.getenv().getOrDefault("LOGIN_THROTTLE_CLUSTER_IP_LIMIT", "100"));
+    this.clusterEmailLimit = Integer
+        .parseInt(System.getenv().getOrDefault("LOGIN_THROTTLE_CLUSTER_EMAIL_LIMIT", "10"));
+    this.retryAfterSeconds = Math.max(1, windowMs / 1000);
+
+    this.rejected = openTelemetry.getMeter("login-throttle")
+        .counterBuilder("auth_login_throttled_total")
+        .setDescription("Login attempts rejected by admission control")
+        .build();
+  }
+
+  @Override
+  public void handle(RoutingContext ctx) {
+    String ip = ctx.request().remoteAddress() != null ? ctx.request().remoteAddress().host() : "unknown";
+    String email = extractEmail(ctx);
+
+    if (!ipBuckets.tryAcquire(ip)) {
+      reject(ctx, "ip");
+      return;
+    }
+
+    if (email != null && !emailBuckets.tryAcquire(email)) {
+      reject(ctx, "email");
+      return;
+    }
+
+    if (!redisEnabled) {
+      ctx.next();
+      return;
+    }
+
+    withinClusterLimit("ip", ip, clusterIpLimit)
+        .compose(ipAllowed -> {
+          if (!ipAllowed) {
+            return Future.succeededFuture("ip_cluster");
+          }
+          if (email == null) {
+            return Future.succeededFuture((String) null);
+          }
+          return withinClusterLimit("email", email, clusterEmailLimit)
+              .map(emailAllowed -> emailAllowed ? null : "email_cluster");
+        })
+        .onSuccess(keyClass -> {
+          if (keyClass != null) {
+            reject(ctx, keyClass);
+          } else {
+            ctx.next();
+          }
+        })
+        .onFailure(err -> {
+          logger.warn("Login throttle Redis check failed, admitting request: {}", err.getMessage());
+          ctx.next();
+        });
+  }
+
+  private Future<Boolean> withinClusterLimit(String keyClass, String key, int limit) {
+    long now = System.currentTimeMillis();
+    long window = now / windowMs;
+    double elapsed = (now % windowMs) / (double) windowMs;
+    String prefix = "login:attempts:" + keyClass + ":" + key + ":";
+
+    return redisService.increment(prefix + window, Duration.ofMillis(windowMs * 2))
+        .compose(current -> redisService.get(prefix + (window - 1))
+            .map(previous -> {
+              long previousCount = previous != null && !previous.isEmpty() ? Long.parseLong(previous) : 0L;
+              return previousCount * (1 - elapsed) + current <= limit;
+            }));
+  }
+
+  private void reject(RoutingContext ctx, String keyClass) {
+    rejected.add(1, Attributes.of(KEY_CLASS, keyClass));
+    logger.debug("Login attempt throttled by {}", keyClass);
+
+    ctx.response().putHeader("Retry-After", String.valueOf(retryAfterSeconds));
+    ctx.fail(new TooManyRequestsException("Too many login attempts, please try again later"));
+  }
+
+  private String extractEmail(RoutingContext ctx) {
+    try {
+      JsonObject body = ctx.body().asJsonObject();
+      String email = body != null ? body.getString("email") : null;
+      return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    } catch (Exception e) {
+      return null;
+    }
+  }
+}
@@ -1,7 +1,8 @@
 package com.sanedge.example_crud.middleware;
 
+import com.sanedge.example_crud.service.RoleRegistry;
+
 import io.vertx.core.Handler;
-import io.vertx.core.json.JsonArray;
 import io.vertx.ext.web.RoutingContext;
 
 public final class RoleMiddleware {
@@ -9,13 +10,20 @@ public final class RoleMiddleware {
   private RoleMiddleware() {
   }
 
-  public static Handler<RoutingContext> requireRole(String role) {
+  public static Handler<RoutingContext> requireRole(RoleRegistry registry, String role) {
+    return requireAnyRole(registry, role);
+  }
+
+  public static Handler<RoutingContext> requireAnyRole(RoleRegistry registry, String... roles) {
+    RoleRegistry.RequiredRoles required = registry.require(roles);
+
     return ctx -> {
-      JsonArray roles = ctx.user()
-          .principal()
-          .getJsonArray("roleNames");
+      if (ctx.user() == null) {
+        ctx.response().setStatusCode(401).end("Unauthorized");
+        return;
+      }
 
-      if (roles == null || !roles.contains(role)) {
+      if (!required.isSatisfiedBy(ctx.user().principal())) {
         ctx.response().setStatusCode(403).end("Forbidden");
         return;
       }
@@ -0,0 +1,65 @@
+package com.sanedge.example_crud.middleware;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, lock-free token buckets. Keys are hashed onto a power-of-two
+ * number of stripes; each stripe packs its last refill time and token count
+ * into a single long updated with CAS, so memory stays constant no matter
+ * how many distinct keys an attacker rotates through.
+ */
+final class StripedTokenBuckets {
+  private static final int TOKEN_BITS = 24;
+  private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+  private static final long SCALE = 1000;
+
+  private final AtomicLongArray stripes;
+  private final int mask;
+  private final long capacity;
+  private final double refillPerMs;
+  private final long epoch = System.currentTimeMillis() - 1;
+
+  StripedTokenBuckets(int stripeCount, int capacity, int refillPerMinute) {
+    int size = Integer.highestOneBit(Math.max(2, stripeCount - 1)) << 1;
+
+    this.stripes = new AtomicLongArray(size);
+    this.mask = size - 1;
+    this.capacity = Math.min(capacity * SCALE, TOKEN_MASK);
+    this.refillPerMs = refillPerMinute * SCALE / 60_000.0;
+  }
+
+  boolean tryAcquire(String key) {
+    int index = spread(key.hashCode()) & mask;
+    long now = System.currentTimeMillis() - epoch;
+
+    while (true) {
+      long current = stripes.get(index);
+      long last = current >>> TOKEN_BITS;
+      long tokens = current & TOKEN_MASK;
+
+      if (current == 0) {
+        last = now;
+        tokens = capacity;
+      }
+
+      long refill = (long) ((now - last) * refillPerMs);
+      if (refill > 0) {
+        tokens = Math.min(capacity, tokens + refill);
+        last = now;
+      }
+
+      if (tokens < SCALE) {
+        return false;
+      }
+
+      long next = (last << TOKEN_BITS) | (tokens - SCALE);
+      if (stripes.compareAndSet(index, current, next)) {
+        return true;
+      }
+    }
+  }
+
+  private static int spread(int h) {
+    return h ^ (h >>> 16);
+  }
+}
@@ -0,0 +1,32 @@
+package com.sanedge.example_crud.model;
+
+import java.time.Instant;
+
+import io.vertx.sqlclient.Row;
+
+/**
+ * Index-based reads for the row mappers. Positions are resolved once per
+ * result set; -1 marks a column the query did not select and reads as null.
+ */
+final class ColumnReader {
+
+  private ColumnReader() {
+  }
+
+  static int index(Row row, String name, String alias) {
+    int index = row.getColumnIndex(name);
+    return index != -1 ? index : row.getColumnIndex(alias);
+  }
+
+  static Integer integer(Row row, int index) {
+    return index != -1 ? row.getInteger(index) : null;
+  }
+
+  static String string(Row row, int index) {
+    return index != -1 ? row.getString(index) : null;
+  }
+
+  static Instant instant(Row row, int index) {
+    return index != -1 ? Timestamps.toInstant(row.getOffsetDateTime(index)) : null;
+  }
+}
@@ -1,6 +1,7 @@
 package com.sanedge.example_crud.model;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
+
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Row;
 import lombok.AllArgsConstructor;
@@ -16,10 +17,10 @@ public class RefreshToken {
   private Integer refreshTokenId;
   private Integer userId;
   private String token;
-  private LocalDateTime expiration;
-  private LocalDateTime createdAt;
-  private LocalDateTime updatedAt;
-  private LocalDateTime deletedAt;
+  private Instant expiration;
+  private Instant createdAt;
+  private Instant updatedAt;
+  private Instant deletedAt;
 
   public JsonObject toJson() {
     JsonObject json = new JsonObject()
@@ -27,42 +28,43 @@ public class RefreshToken {
         .put("userId", userId)
         .put("token", token);
 
-    if (expiration != null) {
-      json.put("expiration", expiration.toString());
-    }
-    if (createdAt != null) {
-      json.put("createdAt", createdAt.toString());
-    }
-    if (updatedAt != null) {
-      json.put("updatedAt", updatedAt.toString());
-    }
-    if (deletedAt != null) {
-      json.put("deletedAt", deletedAt.toString());
-    }
+    Timestamps.toJson(json, "expiration", expiration);
+    Timestamps.toJson(json, "createdAt", createdAt);
+    Timestamps.toJson(json, "updatedAt", updatedAt);
+    Timestamps.toJson(json, "deletedAt", deletedAt);
 
     return json;
   }
 
-  public static RefreshToken fromRow(Row row) {
-    if (row == null) {
+  public static RefreshToken fromJson(JsonObject json) {
+    if (json == null) {
       return null;
     }
 
-    Integer refreshTokenId = row.getInteger("refresh_token_id");
-    if (refreshTokenId == null) {
-      refreshTokenId = row.getInteger("refreshTokenId");
-    }
+    return RefreshToken.builder()
+        .refreshTokenId(json.getInteger("refreshTokenId"))
+        .userId(json.getInteger("userId"))
+        .token(json.getString("token"))
+        .expiration(Timestamps.fromJson(json, "expiration"))
+        .createdAt(Timestamps.fromJson(json, "createdAt"))
+        .updatedAt(Timestamps.fromJson(json, "updatedAt"))
+        .deletedAt(Timestamps.fromJson(json, "deletedAt"))
+        .build();
+  }
 
-    Integer userId = row.getInteger("user_id");
-    if (userId == null) {
-      userId = row.getInteger("userId");
+  public static RefreshToken fromRow(Row row) {
+    if (row == null) {
+      return null;
     }
 
-    String token = row.getString("token");
-    LocalDateTime expiration = row.getLocalDateTime("expiration");
-    LocalDateTime createdAt = row.getLocalDateTime("created_at");
-    LocalDateTime updatedAt = row.getLocalDateTime("updated_at");
-    LocalDateTime deletedAt = row.getLocalDateTime("deleted_at");
+    // Token queries return at most one row, so positions are resolved per row.
+    Integer refreshTokenId = ColumnReader.integer(row, ColumnReader.index(row, "refresh_token_id", "refreshTokenId"));
+    Integer userId = ColumnReader.integer(row, ColumnReader.index(row, "user_id", "userId"));
+    String token = ColumnReader.string(row, row.getColumnIndex("token"));
+    Instant expiration = ColumnReader.instant(row, row.getColumnIndex("expiration"));
+    Instant createdAt = ColumnReader.instant(row, row.getColumnIndex("created_at"));
+    Instant updatedAt = ColumnReader.instant(row, row.getColumnIndex("updated_at"));
+    Instant deletedAt = ColumnReader.instant(row, row.getColumnIndex("deleted_at"));
 
     return RefreshToken.builder()
         .refreshTokenId(refreshTokenId)
@@ -1,12 +1,12 @@
 package com.sanedge.example_crud.model;
 
-import java.sql.Timestamp;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
 
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,24 +19,18 @@ import lombok.NoArgsConstructor;
 public class Role {
   private Integer roleId;
   private String roleName;
-  private Timestamp createdAt;
-  private Timestamp updatedAt;
-  private Timestamp deletedAt;
+  private Instant createdAt;
+  private Instant updatedAt;
+  private Instant deletedAt;
 
   public JsonObject toJson() {
     JsonObject json = new JsonObject()
         .put("roleId", roleId)
         .put("roleName", roleName);
 
-    if (createdAt != null) {
-      json.put("createdAt", createdAt.toString());
-    }
-    if (updatedAt != null) {
-      json.put("updatedAt", updatedAt.toString());
-    }
-    if (deletedAt != null) {
-      json.put("deletedAt", deletedAt.toString());
-    }
+    Timestamps.toJson(json, "createdAt", createdAt);
+    Timestamps.toJson(json, "updatedAt", updatedAt);
+    Timestamps.toJson(json, "deletedAt", deletedAt);
 
     return json;
   }
@@ -50,76 +44,61 @@ public class Role {
     role.setRoleId(json.getInteger("roleId"));
     role.setRoleName(json.getString("roleName"));
 
-    role.setCreatedAt(parseTimestamp(json, "createdAt"));
-    role.setUpdatedAt(parseTimestamp(json, "updatedAt"));
-    role.setDeletedAt(parseTimestamp(json, "deletedAt"));
+    role.setCreatedAt(Timestamps.fromJson(json, "createdAt"));
+    role.setUpdatedAt(Timestamps.fromJson(json, "updatedAt"));
+    role.setDeletedAt(Timestamps.fromJson(json, "deletedAt"));
 
     return role;
   }
 
-  public static Role fromRow(Row row) {
-    if (row == null)
-      return null;
-
-    Integer roleId = row.getInteger("role_id");
-    if (roleId == null)
-      roleId = row.getInteger("roleId");
-
-    String roleName = row.getString("role_name");
-    if (roleName == null)
-      roleName = row.getString("roleName");
-
-    Timestamp createdAt = null;
-    LocalDateTime createdAtLocal = row.get(LocalDateTime.class, "created_at");
-    if (createdAtLocal != null) {
-      createdAt = Timestamp.valueOf(createdAtLocal);
+  /**
+   * Positions of the role columns in one result set, resolved once so each
+   * row is read by index rather than by name.
+   */
+  public static final class Columns {
+    private final int roleId;
+    private final int roleName;
+    private final int createdAt;
+    private final int updatedAt;
+    private final int deletedAt;
+
+    private Columns(Row row) {
+      this.roleId = ColumnReader.index(row, "role_id", "roleId");
+      this.roleName = ColumnReader.index(row, "role_name", "roleName");
+      this.createdAt = row.getColumnIndex("created_at");
+      this.updatedAt = row.getColumnIndex("updated_at");
+      this.deletedAt = row.getColumnIndex("deleted_at");
     }
 
-    Timestamp updatedAt = null;
-    LocalDateTime updatedAtLocal = row.get(LocalDateTime.class, "updated_at");
-    if (updatedAtLocal != null) {
-      updatedAt = Timestamp.valueOf(updatedAtLocal);
+    public static Columns of(Row row) {
+      return new Columns(row);
     }
+  }
 
-    Timestamp deletedAt = null;
-    LocalDateTime deletedAtLocal = row.get(LocalDateTime.class, "deleted_at");
-    if (deletedAtLocal != null) {
-      deletedAt = Timestamp.valueOf(deletedAtLocal);
-    }
+  public static Role fromRow(Row row) {
+    return row != null ? fromRow(row, Columns.of(row)) : null;
+  }
 
+  public static Role fromRow(Row row, Columns columns) {
     return Role.builder()
-        .roleId(roleId)
-        .roleName(roleName)
-        .createdAt(createdAt)
-        .updatedAt(updatedAt)
-        .deletedAt(deletedAt)
+        .roleId(ColumnReader.integer(row, columns.roleId))
+        .roleName(ColumnReader.string(row, columns.roleName))
+        .createdAt(ColumnReader.instant(row, columns.createdAt))
+        .updatedAt(ColumnReader.instant(row, columns.updatedAt))
+        .deletedAt(ColumnReader.instant(row, columns.deletedAt))
         .build();
   }
 
-  private static Timestamp parseTimestamp(JsonObject json, String field) {
-    Object value = json.getValue(field);
-
-    if (value == null) {
-      return null;
-    }
-
-    if (value instanceof Timestamp ts) {
-      return ts;
-    }
-
-    if (value instanceof String str && !str.isBlank()) {
-      try {
-        return Timestamp.from(Instant.parse(str));
-      } catch (DateTimeParseException e) {
-        return null;
+  public static List<Role> fromRows(RowSet<Row> rows) {
+    List<Role> roles = new ArrayList<>(rows.size());
+    Columns columns = null;
+    for (Row row : rows) {
+      if (columns == null) {
+        columns = Columns.of(row);
       }
+      roles.add(fromRow(row, columns));
     }
-
-    if (value instanceof Number num) {
-      return new Timestamp(num.longValue());
-    }
-
-    return null;
+    return roles;
   }
 
   @Override
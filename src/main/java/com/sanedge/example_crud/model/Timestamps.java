@@ -0,0 +1,61 @@
+package com.sanedge.example_crud.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Timestamp handling shared by the models: {@code timestamptz} columns are
+ * held as {@link Instant}, and cached JSON carries epoch milliseconds.
+ */
+final class Timestamps {
+
+  private Timestamps() {
+  }
+
+  static Instant toInstant(OffsetDateTime value) {
+    return value != null ? value.toInstant() : null;
+  }
+
+  static void toJson(JsonObject json, String field, Instant value) {
+    if (value != null) {
+      json.put(field, value.toEpochMilli());
+    }
+  }
+
+  static Instant fromJson(JsonObject json, String field) {
+    Object value = json.getValue(field);
+
+    if (value instanceof Number num) {
+      return Instant.ofEpochMilli(num.longValue());
+    }
+
+    if (value instanceof String str && !str.isBlank()) {
+      return parseLegacy(str);
+    }
+
+    return null;
+  }
+
+  /**
+   * Entries cached before timestamps were written as epoch numbers held the
+   * wall-clock {@code Timestamp} / {@code LocalDateTime} text, e.g.
+   * {@code 2024-01-01 12:00:00.0}, which was UTC (see V6).
+   */
+  private static Instant parseLegacy(String str) {
+    try {
+      return Instant.parse(str);
+    } catch (DateTimeParseException e) {
+      // No offset: fall through to the wall-clock forms.
+    }
+    try {
+      return LocalDateTime.parse(str.replace(' ', 'T')).toInstant(ZoneOffset.UTC);
+    } catch (DateTimeParseException e) {
+      return null;
+    }
+  }
+}
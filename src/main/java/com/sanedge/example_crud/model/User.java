@@ -9,14 +9,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.sql.Timestamp;
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeParseException;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Data
 @Builder
@@ -28,9 +24,9 @@ public class User {
   private String lastname;
   private String email;
   private String password;
-  private Timestamp createdAt;
-  private Timestamp updatedAt;
-  private Timestamp deletedAt;
+  private Instant createdAt;
+  private Instant updatedAt;
+  private Instant deletedAt;
 
   private List<Role> roles;
 
@@ -41,15 +37,9 @@ public class User {
         .put("lastname", lastname)
         .put("email", email);
 
-    if (createdAt != null) {
-      json.put("createdAt", createdAt.toString());
-    }
-    if (updatedAt != null) {
-      json.put("updatedAt", updatedAt.toString());
-    }
-    if (deletedAt != null) {
-      json.put("deletedAt", deletedAt.toString());
-    }
+    Timestamps.toJson(json, "createdAt", createdAt);
+    Timestamps.toJson(json, "updatedAt", updatedAt);
+    Timestamps.toJson(json, "deletedAt", deletedAt);
     if (roles != null && !roles.isEmpty()) {
       json.put("roles", roles.stream().map(Role::toJson).toList());
     }
@@ -69,9 +59,9 @@ public class User {
     user.setLastname(json.getString("lastname"));
     user.setEmail(json.getString("email"));
 
-    user.setCreatedAt(parseTimestamp(json, "createdAt"));
-    user.setUpdatedAt(parseTimestamp(json, "updatedAt"));
-    user.setDeletedAt(parseTimestamp(json, "deletedAt"));
+    user.setCreatedAt(Timestamps.fromJson(json, "createdAt"));
+    user.setUpdatedAt(Timestamps.fromJson(json, "updatedAt"));
+    user.setDeletedAt(Timestamps.fromJson(json, "deletedAt"));
 
     JsonArray rolesArray = json.getJsonArray("roles");
     if (rolesArray != null) {
@@ -86,81 +76,88 @@ public class User {
     return user;
   }
 
-  public static User fromRow(Row row) {
-    if (row == null)
-      return null;
-
-    Integer userId = row.getInteger("user_id");
-    if (userId == null)
-      userId = row.getInteger("userId");
-
-    String firstname = row.getString("firstname");
-    String lastname = row.getString("lastname");
-    String email = row.getString("email");
-    String password = row.getString("password");
-
-    Timestamp createdAt = null;
-    LocalDateTime createdAtLocal = row.get(LocalDateTime.class, "created_at");
-    if (createdAtLocal != null) {
-      createdAt = Timestamp.valueOf(createdAtLocal);
-    }
-
-    Timestamp updatedAt = null;
-    LocalDateTime updatedAtLocal = row.get(LocalDateTime.class, "updated_at");
-    if (updatedAtLocal != null) {
-      updatedAt = Timestamp.valueOf(updatedAtLocal);
+  /**
+   * Positions of the user columns in one result set, resolved once so each
+   * row is read by index rather than by name.
+   */
+  public static final class Columns {
+    private final int userId;
+    private final int firstname;
+    private final int lastname;
+    private final int email;
+    private final int password;
+    private final int createdAt;
+    private final int updatedAt;
+    private final int deletedAt;
+    private final int roleIds;
+    private final int roleNames;
+    private final int roleCreatedAts;
+    private final int roleUpdatedAts;
+
+    private Columns(Row row) {
+      this.userId = ColumnReader.index(row, "user_id", "userId");
+      this.firstname = row.getColumnIndex("firstname");
+      this.lastname = row.getColumnIndex("lastname");
+      this.email = row.getColumnIndex("email");
+      // Only the authentication queries select the hash.
+      this.password = row.getColumnIndex("password");
+      this.createdAt = row.getColumnIndex("created_at");
+      this.updatedAt = row.getColumnIndex("updated_at");
+      this.deletedAt = row.getColumnIndex("deleted_at");
+      this.roleIds = row.getColumnIndex("role_ids");
+      this.roleNames = row.getColumnIndex("role_names");
+      this.roleCreatedAts = row.getColumnIndex("role_created_ats");
+      this.roleUpdatedAts = row.getColumnIndex("role_updated_ats");
+    }
+
+    public static Columns of(Row row) {
+      return new Columns(row);
     }
+  }
 
-    Timestamp deletedAt = null;
-    LocalDateTime deletedAtLocal = row.get(LocalDateTime.class, "deleted_at");
-    if (deletedAtLocal != null) {
-      deletedAt = Timestamp.valueOf(deletedAtLocal);
-    }
+  public static User fromRow(Row row) {
+    return row != null ? fromRow(row, Columns.of(row)) : null;
+  }
 
+  public static User fromRow(Row row, Columns columns) {
     return User.builder()
-        .userId(userId)
-        .firstname(firstname)
-        .lastname(lastname)
-        .email(email)
-        .password(password)
-        .createdAt(createdAt)
-        .updatedAt(updatedAt)
-        .deletedAt(deletedAt)
+        .userId(ColumnReader.integer(row, columns.userId))
+        .firstname(ColumnReader.string(row, columns.firstname))
+        .lastname(ColumnReader.string(row, columns.lastname))
+        .email(ColumnReader.string(row, columns.email))
+        .password(ColumnReader.string(row, columns.password))
+        .createdAt(ColumnReader.instant(row, columns.createdAt))
+        .updatedAt(ColumnReader.instant(row, columns.updatedAt))
+        .deletedAt(ColumnReader.instant(row, columns.deletedAt))
         .build();
   }
 
+  public static List<User> fromRows(RowSet<Row> rows) {
+    List<User> users = new ArrayList<>(rows.size());
+    Columns columns = null;
+    for (Row row : rows) {
+      if (columns == null) {
+        columns = Columns.of(row);
+      }
+      users.add(fromRow(row, columns));
+    }
+    return users;
+  }
+
   public static List<User> fromRowsToUsersWithRoles(RowSet<Row> rows) {
     if (rows == null) {
       return List.of();
     }
 
-    Map<Integer, User> userMap = new HashMap<>();
-
+    List<User> users = new ArrayList<>(rows.size());
+    Columns columns = null;
     for (Row row : rows) {
-      Integer userId = row.getInteger("user_id");
-
-      User user = userMap.get(userId);
-      if (user == null) {
-        user = User.fromRow(row);
-        user.setRoles(new ArrayList<>());
-        userMap.put(userId, user);
-      }
-
-      Integer roleId = row.getInteger("role_id");
-      if (roleId != null) {
-        Role role = Role.builder()
-            .roleId(roleId)
-            .roleName(row.getString("role_name"))
-            .createdAt(getTimestampFromRow(row, "role_created_at"))
-            .updatedAt(getTimestampFromRow(row, "role_updated_at"))
-            .deletedAt(getTimestampFromRow(row, "role_deleted_at"))
-            .build();
-
-        user.getRoles().add(role);
+      if (columns == null) {
+        columns = Columns.of(row);
       }
+      users.add(fromRowWithRoles(row, columns));
     }
-
-    return new ArrayList<>(userMap.values());
+    return users;
   }
 
   public static User fromRowsWithRoles(RowSet<Row> rows) {
@@ -168,57 +165,43 @@ public class User {
       return null;
     }
 
-    User user = fromRow(rows.iterator().next());
-
-    user.setRoles(new ArrayList<>());
-
-    for (Row row : rows) {
-      Integer roleId = row.getInteger("role_id");
-      if (roleId != null) {
-        Role role = Role.builder()
-            .roleId(roleId)
-            .roleName(row.getString("role_name"))
-            .createdAt(getTimestampFromRow(row, "role_created_at"))
-            .updatedAt(getTimestampFromRow(row, "role_updated_at"))
-            .deletedAt(getTimestampFromRow(row, "role_deleted_at"))
-            .build();
-
-        user.getRoles().add(role);
-      }
-    }
-
-    return user;
+    return fromRowWithRoles(rows.iterator().next());
   }
 
-  private static Timestamp parseTimestamp(JsonObject json, String field) {
-    Object value = json.getValue(field);
+  /**
+   * Maps a user row whose roles were aggregated in SQL into the parallel
+   * arrays {@code role_ids}, {@code role_names}, {@code role_created_ats}
+   * and {@code role_updated_ats}.
+   */
+  public static User fromRowWithRoles(Row row) {
+    return fromRowWithRoles(row, Columns.of(row));
+  }
 
-    if (value == null) {
-      return null;
-    }
+  public static User fromRowWithRoles(Row row, Columns columns) {
+    User user = fromRow(row, columns);
 
-    if (value instanceof Timestamp ts) {
-      return ts;
+    Integer[] roleIds = row.getArrayOfIntegers(columns.roleIds);
+    if (roleIds == null) {
+      user.setRoles(new ArrayList<>());
+      return user;
     }
 
-    if (value instanceof String str && !str.isBlank()) {
-      try {
-        return Timestamp.from(Instant.parse(str));
-      } catch (DateTimeParseException e) {
-        return null;
-      }
-    }
+    String[] roleNames = row.getArrayOfStrings(columns.roleNames);
+    OffsetDateTime[] createdAts = row.getArrayOfOffsetDateTimes(columns.roleCreatedAts);
+    OffsetDateTime[] updatedAts = row.getArrayOfOffsetDateTimes(columns.roleUpdatedAts);
 
-    if (value instanceof Number num) {
-      return new Timestamp(num.longValue());
+    List<Role> roles = new ArrayList<>(roleIds.length);
+    for (int i = 0; i < roleIds.length; i++) {
+      roles.add(Role.builder()
+          .roleId(roleIds[i])
+          .roleName(roleNames[i])
+          .createdAt(Timestamps.toInstant(createdAts[i]))
+          .updatedAt(Timestamps.toInstant(updatedAts[i]))
+          .build());
     }
 
-    return null;
-  }
-
-  private static Timestamp getTimestampFromRow(Row row, String column) {
-    LocalDateTime localDateTime = row.get(LocalDateTime.class, column);
-    return localDateTime != null ? Timestamp.valueOf(localDateTime) : null;
+    user.setRoles(roles);
+    return user;
   }
 
   @Override
@@ -1,10 +1,12 @@
 package com.sanedge.example_crud.model;
 
-import java.sql.Timestamp;
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,9 +20,9 @@ public class UserRole {
   private Integer userRoleId;
   private Integer userId;
   private Integer roleId;
-  private Timestamp createdAt;
-  private Timestamp updatedAt;
-  private Timestamp deletedAt;
+  private Instant createdAt;
+  private Instant updatedAt;
+  private Instant deletedAt;
 
   public JsonObject toJson() {
     JsonObject json = new JsonObject()
@@ -28,63 +30,66 @@ public class UserRole {
         .put("userId", userId)
         .put("roleId", roleId);
 
-    if (createdAt != null) {
-      json.put("createdAt", createdAt.toString());
-    }
-    if (updatedAt != null) {
-      json.put("updatedAt", updatedAt.toString());
-    }
-    if (deletedAt != null) {
-      json.put("deletedAt", deletedAt.toString());
-    }
+    Timestamps.toJson(json, "createdAt", createdAt);
+    Timestamps.toJson(json, "updatedAt", updatedAt);
+    Timestamps.toJson(json, "deletedAt", deletedAt);
 
     return json;
   }
 
-  public static UserRole fromRow(Row row) {
-    if (row == null)
-      return null;
-
-    Integer userRoleId = row.getInteger("user_role_id");
-    if (userRoleId == null)
-      userRoleId = row.getInteger("userRoleId");
-
-    Integer userId = row.getInteger("user_id");
-    if (userId == null)
-      userId = row.getInteger("userId");
-
-    Integer roleId = row.getInteger("role_id");
-    if (roleId == null)
-      roleId = row.getInteger("roleId");
+  /**
+   * Positions of the user role columns in one result set, resolved once so
+   * each row is read by index rather than by name.
+   */
+  public static final class Columns {
+    private final int userRoleId;
+    private final int userId;
+    private final int roleId;
+    private final int createdAt;
+    private final int updatedAt;
+    private final int deletedAt;
 
-    Timestamp createdAt = null;
-    LocalDateTime createdAtLocal = row.get(LocalDateTime.class, "created_at");
-    if (createdAtLocal != null) {
-      createdAt = Timestamp.valueOf(createdAtLocal);
+    private Columns(Row row) {
+      this.userRoleId = ColumnReader.index(row, "user_role_id", "userRoleId");
+      this.userId = ColumnReader.index(row, "user_id", "userId");
+      this.roleId = ColumnReader.index(row, "role_id", "roleId");
+      this.createdAt = row.getColumnIndex("created_at");
+      this.updatedAt = row.getColumnIndex("updated_at");
+      this.deletedAt = row.getColumnIndex("deleted_at");
     }
 
-    Timestamp updatedAt = null;
-    LocalDateTime updatedAtLocal = row.get(LocalDateTime.class, "updated_at");
-    if (updatedAtLocal != null) {
-      updatedAt = Timestamp.valueOf(updatedAtLocal);
+    public static Columns of(Row row) {
+      return new Columns(row);
     }
+  }
 
-    Timestamp deletedAt = null;
-    LocalDateTime deletedAtLocal = row.get(LocalDateTime.class, "deleted_at");
-    if (deletedAtLocal != null) {
-      deletedAt = Timestamp.valueOf(deletedAtLocal);
-    }
+  public static UserRole fromRow(Row row) {
+    return row != null ? fromRow(row, Columns.of(row)) : null;
+  }
 
+  public static UserRole fromRow(Row row, Columns columns) {
     return UserRole.builder()
-        .userRoleId(userRoleId)
-        .userId(userId)
-        .roleId(roleId)
-        .createdAt(createdAt)
-        .updatedAt(updatedAt)
-        .deletedAt(deletedAt)
+        .userRoleId(ColumnReader.integer(row, columns.userRoleId))
+        .userId(ColumnReader.integer(row, columns.userId))
+        .roleId(ColumnReader.integer(row, columns.roleId))
+        .createdAt(ColumnReader.instant(row, columns.createdAt))
+        .updatedAt(ColumnReader.instant(row, columns.updatedAt))
+        .deletedAt(ColumnReader.instant(row, columns.deletedAt))
         .build();
   }
 
+  public static List<UserRole> fromRows(RowSet<Row> rows) {
+    List<UserRole> userRoles = new ArrayList<>(rows.size());
+    Columns columns = null;
+    for (Row row : rows) {
+      if (columns == null) {
+        columns = Columns.of(row);
+      }
+      userRoles.add(fromRow(row, columns));
+    }
+    return userRoles;
+  }
+
   @Override
   public String toString() {
     return toJson().encode();
@@ -0,0 +1,743 @@
+package com.sanedge.example_crud.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sanedge.example_crud.domain.requests.Deadline;
+import com.sanedge.example_crud.exception.DeadlineExceededException;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.pgclient.PgBuilder;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.PgConnection;
+import io.vertx.pgclient.PgException;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Routes repository statements between the primary pool and optional read
+ * replicas ({@code DB_REPLICA_HOSTS}, comma separated {@code host[:port]}).
+ *
+ * <ul>
+ * <li>Writes, and reads that must see the latest commit, always use the
+ * primary.</li>
+ * <li>Other reads round-robin over replicas whose lag, checked every
+ * {@code REPLICA_LAG_CHECK_MS}, is within {@code REPLICA_MAX_LAG_MS}. With no
+ * healthy replica, or when a replica read fails, the read goes to the
+ * primary.</li>
+ * <li>Reads stay on the primary for {@code READ_YOUR_WRITES_MS} after a write
+ * to the same user, after any role write, and after any write by the same
+ * caller (the session of the {@link #withDeadline} view), so the next read
+ * sees the change. The windows are node-local.</li>
+ * <li>With {@code DB_HEDGE_ENABLED}, a read that is slower than its
+ * operation's recent p95 ({@code DB_HEDGE_PERCENTILE}) is hedged on another replica or pool, within a
+ * per-operation budget (see {@link HedgePolicy}).</li>
+ * <li>A view from {@link #withDeadline} cancels reads that outlive the
+ * request's deadline and fails them with a 504. Writes are never cancelled
+ * once sent; they are only refused if the deadline passes before they get a
+ * connection.</li>
+ * </ul>
+ *
+ * <p>
+ * Every pool is a {@link MonitoredPool}: acquire wait, statement latency (by
+ * repository method), in-use, idle and waiting connections, and connections
+ * opened are exported per pool. Slow statements are reported to the
+ * {@link SlowQueryObserver}.
+ */
+public class DataSourceRouter {
+  private static final Logger logger = LoggerFactory.getLogger(DataSourceRouter.class);
+
+  private static final AttributeKey<String> OPERATION = AttributeKey.stringKey("operation");
+  private static final AttributeKey<String> TARGET = AttributeKey.stringKey("target");
+  private static final AttributeKey<String> REASON = AttributeKey.stringKey("reason");
+  private static final AttributeKey<String> REPLICA = AttributeKey.stringKey("replica");
+  private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+
+  private static final String ROLES_KEY = "roles";
+
+  private static final String LAG_QUERY = """
+      SELECT CASE
+        WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+        ELSE (EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint
+      END AS lag_ms
+      """;
+
+  private final Vertx vertx;
+  private final MonitoredPool primary;
+  private final List<Replica> replicas;
+  private final Map<String, Long> recentWrites;
+  private final AtomicInteger next;
+  private final LongCounter readsRouted;
+  private final LongCounter readHedges;
+  private final LongCounter deadlinesExceeded;
+  private final HedgePolicy hedgePolicy;
+  private final SlowQueryObserver slowQueries;
+  private final Deadline deadline;
+
+  private final long maxLagMs;
+  private final long lagCheckMs;
+  private final long readYourWritesMs;
+
+  private long timerId = -1;
+
+  private enum Target {
+    REPLICA, PINNED, WRITE
+  }
+
+  /**
+   * One routed statement, used like {@code pool.preparedQuery(sql).execute(args)}.
+   */
+  public static final class Statement {
+    private final DataSourceRouter router;
+    private final String operation;
+    private final Target target;
+    private final String key;
+    private String sql;
+
+    private Statement(DataSourceRouter router, String operation, Target target, String key) {
+      this.router = router;
+      this.operation = operation;
+      this.target = target;
+      this.key = key;
+    }
+
+    public Statement preparedQuery(String sql) {
+      this.sql = sql;
+      return this;
+    }
+
+    public Future<RowSet<Row>> execute(Tuple args) {
+      return router.dispatch(this, args);
+    }
+
+    public Future<RowSet<Row>> execute() {
+      return execute(Tuple.tuple());
+    }
+  }
+
+  /**
+   * One copy of a statement on its own pooled connection, so it can be
+   * cancelled without touching other statements.
+   */
+  private final class Attempt {
+    final long startNanos = System.nanoTime();
+    final Future<RowSet<Row>> future;
+    SqlConnection connection;
+    boolean cancelled;
+    boolean done;
+
+    Attempt(MonitoredPool pool, String operation, boolean explainable, String sql, Tuple args) {
+      this.future = pool.withConnection(operation, conn -> {
+        if (cancelled) {
+          return Future.<RowSet<Row>>failedFuture("Statement cancelled");
+        }
+        connection = conn;
+        return run(conn, pool, operation, explainable, sql, args)
+            // Forget the connection before it goes back to the pool so a late
+            // cancel can never hit the next borrower's statement.
+            .onComplete(ar -> connection = null);
+      });
+    }
+
+    long elapsedMs() {
+      return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    void cancel() {
+      if (done || cancelled) {
+        return;
+      }
+      cancelled = true;
+      if (connection != null) {
+        PgConnection.cast(connection).cancelRequest()
+            .onFailure(err -> logger.debug("Cancel of hedged read failed: {}", err.getMessage()));
+      }
+    }
+  }
+
+  private static final class Replica {
+    final String name;
+    final MonitoredPool pool;
+    volatile long lagMs = -1;
+    volatile boolean healthy;
+
+    Replica(String name, MonitoredPool pool) {
+      this.name = name;
+      this.pool = pool;
+    }
+  }
+
+  private DataSourceRouter(Vertx vertx, MonitoredPool primary, List<Replica> replicas,
+      SlowQueryObserver slowQueries, Meter meter) {
+
+    this.vertx = vertx;
+    this.primary = primary;
+    this.replicas = replicas;
+    this.recentWrites = new ConcurrentHashMap<>();
+    this.next = new AtomicInteger();
+    this.hedgePolicy = new HedgePolicy();
+    this.slowQueries = slowQueries;
+    this.deadline = null;
+
+    this.maxLagMs = Long.parseLong(System.getenv().getOrDefault("REPLICA_MAX_LAG_MS", "1000"));
+    this.lagCheckMs = Long.parseLong(System.getenv().getOrDefault("REPLICA_LAG_CHECK_MS", "2000"));
+    this.readYourWritesMs = Long.parseLong(System.getenv().getOrDefault("READ_YOUR_WRITES_MS", "5000"));
+
+    this.readsRouted = meter.counterBuilder("db_reads_routed_total")
+        .setDescription("Reads routed by the datasource router, by target and reason")
+        .build();
+    this.readHedges = meter.counterBuilder("db_read_hedges_total")
+        .setDescription("Hedged reads by outcome: original_won, hedge_won, failed, budget_exhausted or no_capacity")
+        .build();
+    this.deadlinesExceeded = meter.counterBuilder("db_deadline_exceeded_total")
+        .setDescription("Statements cancelled or refused because the request deadline expired")
+        .build();
+    meter.gaugeBuilder("db_replica_lag_ms")
+        .setDescription("Replication lag of each read replica, -1 when unreachable")
+        .setUnit("ms")
+        .ofLongs()
+        .buildWithCallback(measurement -> {
+          for (Replica replica : replicas) {
+            measurement.record(replica.lagMs, Attributes.of(REPLICA, replica.name));
+          }
+        });
+
+    meter.gaugeBuilder("db_pool_connections_in_use")
+        .setDescription("Connections currently lent out, per pool")
+        .ofLongs()
+        .buildWithCallback(measurement -> pools()
+            .forEach(pool -> measurement.record(pool.inUse(), Attributes.of(MonitoredPool.POOL, pool.name))));
+    meter.gaugeBuilder("db_pool_connections_idle")
+        .setDescription("Open connections not currently lent out, per pool")
+        .ofLongs()
+        .buildWithCallback(measurement -> pools()
+            .forEach(pool -> measurement.record(pool.idle(), Attributes.of(MonitoredPool.POOL, pool.name))));
+    meter.gaugeBuilder("db_pool_wait_queue_length")
+        .setDescription("Statements waiting for a connection, per pool")
+        .ofLongs()
+        .buildWithCallback(measurement -> pools()
+            .forEach(pool -> measurement.record(pool.waiting(), Attributes.of(MonitoredPool.POOL, pool.name))));
+  }
+
+  private DataSourceRouter(DataSourceRouter parent, Deadline deadline) {
+    this.vertx = parent.vertx;
+    this.primary = parent.primary;
+    this.replicas = parent.replicas;
+    this.recentWrites = parent.recentWrites;
+    this.next = parent.next;
+    this.readsRouted = parent.readsRouted;
+    this.readHedges = parent.readHedges;
+    this.deadlinesExceeded = parent.deadlinesExceeded;
+    this.hedgePolicy = parent.hedgePolicy;
+    this.slowQueries = parent.slowQueries;
+    this.maxLagMs = parent.maxLagMs;
+    this.lagCheckMs = parent.lagCheckMs;
+    this.readYourWritesMs = parent.readYourWritesMs;
+    this.deadline = deadline;
+  }
+
+  public static DataSourceRouter create(Vertx vertx, PgConnectOptions connectOptions, PoolOptions poolOptions,
+      SlowQueryObserver slowQueries, OpenTelemetry openTelemetry) {
+    Meter meter = openTelemetry.getMeter("datasource-router");
+    DoubleHistogram acquireWait = meter.histogramBuilder("db_pool_acquire_wait_seconds")
+        .setDescription("Time a statement waited for a pooled connection")
+        .setUnit("s")
+        .build();
+    DoubleHistogram statementDuration = meter.histogramBuilder("db_statement_duration_seconds")
+        .setDescription("Time a statement held its connection, by repository method")
+        .setUnit("s")
+        .build();
+    LongCounter connectionsOpened = meter.counterBuilder("db_pool_connections_opened_total")
+        .setDescription("Physical connections opened, per pool; churn against pool size shows connection lifetime")
+        .build();
+
+    MonitoredPool primary = new MonitoredPool("primary",
+        buildPool(vertx, connectOptions, poolOptions, "primary", connectionsOpened), poolOptions.getMaxSize(),
+        acquireWait, statementDuration);
+
+    String hosts = System.getenv().getOrDefault("DB_REPLICA_HOSTS", "");
+    int replicaPoolSize = Integer.parseInt(System.getenv().getOrDefault("DB_REPLICA_POOL_SIZE",
+        String.valueOf(poolOptions.getMaxSize())));
+
+    List<Replica> replicas = new ArrayList<>();
+    for (String entry : hosts.split(",")) {
+      String host = entry.strip();
+      if (host.isEmpty()) {
+        continue;
+      }
+
+      int port = connectOptions.getPort();
+      int colon = host.lastIndexOf(':');
+      if (colon > 0) {
+        port = Integer.parseInt(host.substring(colon + 1));
+        host = host.substring(0, colon);
+      }
+
+      String name = host + ":" + port;
+      PgConnectOptions replicaOptions = new PgConnectOptions(connectOptions).setHost(host).setPort(port);
+      Pool pool = buildPool(vertx, replicaOptions, new PoolOptions(poolOptions).setMaxSize(replicaPoolSize), name,
+          connectionsOpened);
+      replicas.add(new Replica(name, new MonitoredPool(name, pool, replicaPoolSize, acquireWait, statementDuration)));
+    }
+
+    return new DataSourceRouter(vertx, primary, replicas, slowQueries, meter);
+  }
+
+  private static Pool buildPool(Vertx vertx, PgConnectOptions connectOptions, PoolOptions poolOptions, String name,
+      LongCounter connectionsOpened) {
+    Attributes attributes = Attributes.of(MonitoredPool.POOL, name);
+    return PgBuilder.pool()
+        .with(poolOptions)
+        .connectingTo(connectOptions)
+        .using(vertx)
+        .withConnectHandler(conn -> {
+          connectionsOpened.add(1, attributes);
+          // Hands the new connection back to the pool.
+          conn.close();
+        })
+        .build();
+  }
+
+  public void start() {
+    if (replicas.isEmpty()) {
+      return;
+    }
+
+    logger.info("📚 Routing reads to {} replica(s), max lag {} ms",
+        replicas.size(), maxLagMs);
+    checkLag();
+    timerId = vertx.setPeriodic(lagCheckMs, id -> {
+      checkLag();
+      pruneRecentWrites();
+    });
+  }
+
+  public void stop() {
+    if (timerId != -1) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+  }
+
+  /**
+   * Opens {@code DB_POOL_WARMUP_SIZE} connections per pool (default: the
+   * pool's max size) and runs the repositories' hot reads on each, so the
+   * first requests after a deploy skip connection setup and statement
+   * preparation. Failures are logged, never propagated.
+   */
+  public Future<Void> warmUp() {
+    Map<String, Tuple> statements = new LinkedHashMap<>();
+    statements.putAll(UserRepository.WARMUP_READS);
+    statements.putAll(RoleRepository.WARMUP_READS);
+    statements.putAll(RefreshTokenRepository.WARMUP_READS);
+
+    String warmupSize = System.getenv("DB_POOL_WARMUP_SIZE");
+    long start = System.nanoTime();
+
+    List<Future<Void>> pools = new ArrayList<>();
+    pools.add(warmUp(primary, warmupSize, statements));
+    replicas.forEach(replica -> pools.add(warmUp(replica.pool, warmupSize, statements)));
+
+    return Future.join(pools)
+        .onSuccess(v -> logger.info("🔥 Warmed {} pool(s) with {} statements in {} ms", pools.size(),
+            statements.size(), (System.nanoTime() - start) / 1_000_000))
+        .<Void>mapEmpty()
+        .otherwiseEmpty();
+  }
+
+  private Future<Void> warmUp(MonitoredPool pool, String warmupSize, Map<String, Tuple> statements) {
+    int connections = warmupSize != null ? Math.min(Integer.parseInt(warmupSize), pool.maxSize) : pool.maxSize;
+    return pool.warmUp(connections, statements)
+        .onFailure(err -> logger.warn("Warm-up of pool {} failed: {}", pool.name, err.getMessage()));
+  }
+
+  /**
+   * View of this router whose reads are cancelled once {@code deadline}
+   * expires, and whose writes are refused if it expires before they start.
+   * Shares pools, replica health and read-your-writes state.
+   */
+  public DataSourceRouter withDeadline(Deadline deadline) {
+    return deadline != null ? new DataSourceRouter(this, deadline) : this;
+  }
+
+  /**
+   * Runs a multi-statement read such as a cursor in one transaction, on a
+   * replica when one is healthy. Unlike {@link #read}, failures are not
+   * retried on the primary.
+   */
+  public <T> Future<T> readTransaction(String operation, Function<SqlConnection, Future<T>> work) {
+    Replica replica = pickReplica();
+    if (replica == null) {
+      route(operation, "primary", replicas.isEmpty() ? "no_replicas" : "no_healthy_replica");
+      return primary.withTransaction(operation, work);
+    }
+    route(operation, "replica", "replica");
+    return replica.pool.withTransaction(operation, work);
+  }
+
+  public Statement read(String operation) {
+    return new Statement(this, operation, Target.REPLICA, null);
+  }
+
+  /**
+   * Read of one user's data; stays on the primary while that user is inside
+   * the read-your-writes window.
+   */
+  public Statement readForUser(Integer userId, String operation) {
+    return new Statement(this, operation, Target.REPLICA, userKey(userId));
+  }
+
+  /**
+   * Read of roles; stays on the primary for the read-your-writes window after
+   * any role write.
+   */
+  public Statement readRoles(String operation) {
+    return new Statement(this, operation, Target.REPLICA, ROLES_KEY);
+  }
+
+  /**
+   * Read that must see the latest commit, e.g. credential checks.
+   */
+  public Statement readPrimary(String operation) {
+    return new Statement(this, operation, Target.PINNED, null);
+  }
+
+  public Statement write(String operation) {
+    return new Statement(this, operation, Target.WRITE, null);
+  }
+
+  /**
+   * Write to one user's data; opens that user's read-your-writes window.
+   */
+  public Statement writeForUser(Integer userId, String operation) {
+    return new Statement(this, operation, Target.WRITE, userKey(userId));
+  }
+
+  /**
+   * Write to roles; opens the read-your-writes window of {@link #readRoles}.
+   */
+  public Statement writeRoles(String operation) {
+    return new Statement(this, operation, Target.WRITE, ROLES_KEY);
+  }
+
+  public void markWritten(Integer userId) {
+    markWritten(userKey(userId));
+  }
+
+  public void markWritten(Collection<Integer> userIds) {
+    userIds.forEach(this::markWritten);
+  }
+
+  public void markRolesWritten() {
+    markWritten(ROLES_KEY);
+  }
+
+  private void markWritten(String key) {
+    if (key != null && !replicas.isEmpty()) {
+      recentWrites.put(key, System.currentTimeMillis() + readYourWritesMs);
+    }
+  }
+
+  private boolean recentlyWritten(String key) {
+    Long until = key != null ? recentWrites.get(key) : null;
+    return until != null && until > System.currentTimeMillis();
+  }
+
+  private String sessionKey() {
+    return deadline != null && deadline.session() != null ? "session:" + deadline.session() : null;
+  }
+
+  private static String userKey(Integer userId) {
+    return userId != null ? "user:" + userId : null;
+  }
+
+  private Future<RowSet<Row>> dispatch(Statement statement, Tuple args) {
+    String operation = statement.operation;
+
+    if (deadline != null && deadline.isExpired()) {
+      return Future.failedFuture(exceeded(operation));
+    }
+
+    if (statement.target == Target.WRITE) {
+      return write(operation, statement.sql, args)
+          .onSuccess(rows -> {
+            markWritten(statement.key);
+            markWritten(sessionKey());
+          });
+    }
+    if (statement.target == Target.PINNED) {
+      // Pinned reads look up credentials; their plans would carry them.
+      route(operation, "primary", "pinned");
+      return hedgedRead(operation, primary, primary, statement.sql, args, false);
+    }
+
+    if (recentlyWritten(statement.key) || recentlyWritten(sessionKey())) {
+      route(operation, "primary", "read_your_writes");
+      return hedgedRead(operation, primary, primary, statement.sql, args, true);
+    }
+
+    Replica replica = pickReplica();
+    if (replica == null) {
+      route(operation, "primary", replicas.isEmpty() ? "no_replicas" : "no_healthy_replica");
+      return hedgedRead(operation, primary, primary, statement.sql, args, true);
+    }
+
+    route(operation, "replica", "replica");
+    return hedgedRead(operation, replica.pool, alternateFor(replica), statement.sql, args, true)
+        .recover(err -> {
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+          logger.warn("Read {} failed on replica {}, retrying on primary: {}",
+              operation, replica.name, err.getMessage());
+          if (isConnectionFailure(err)) {
+            // Back in rotation once the next lag check succeeds.
+            replica.healthy = false;
+          }
+          route(operation, "primary", "replica_error");
+          return execute(primary, operation, true, statement.sql, args);
+        });
+  }
+
+  /**
+   * True unless the server answered: an SQL error means the replica is up,
+   * except for connection (08) and shutdown (57P) states.
+   */
+  private static boolean isConnectionFailure(Throwable err) {
+    if (!(err instanceof PgException pg)) {
+      return true;
+    }
+    String state = pg.getSqlState();
+    return state != null && (state.startsWith("08") || state.startsWith("57P"));
+  }
+
+  /**
+   * Runs a write on the primary. Cancelling a write the server may already
+   * have committed would report a failure for a change that happened, so the
+   * deadline is only checked once a connection is acquired.
+   */
+  private Future<RowSet<Row>> write(String operation, String sql, Tuple args) {
+    return primary.withConnection(operation, conn -> deadline != null && deadline.isExpired()
+        ? Future.<RowSet<Row>>failedFuture(exceeded(operation))
+        : run(conn, primary, operation, false, sql, args));
+  }
+
+  private Future<RowSet<Row>> execute(MonitoredPool pool, String operation, boolean explainable, String sql, Tuple args) {
+    if (deadline == null) {
+      return pool.withConnection(operation, conn -> run(conn, pool, operation, explainable, sql, args));
+    }
+
+    Attempt attempt = new Attempt(pool, operation, explainable, sql, args);
+    return bounded(operation, attempt.future.onComplete(ar -> attempt.done = true), attempt::cancel);
+  }
+
+  private Future<RowSet<Row>> run(SqlConnection conn, MonitoredPool pool, String operation, boolean explainable, String sql,
+      Tuple args) {
+    long start = System.nanoTime();
+    return conn.preparedQuery(sql).execute(args)
+        .onComplete(ar -> slowQueries.observe(pool, operation, sql, args, explainable,
+            (System.nanoTime() - start) / 1_000_000));
+  }
+
+  /**
+   * Fails {@code work} with a {@link DeadlineExceededException} when the
+   * deadline expires first, and runs {@code cancel} to stop it on the server
+   * and release its connection.
+   */
+  private Future<RowSet<Row>> bounded(String operation, Future<RowSet<Row>> work, Runnable cancel) {
+    if (deadline == null) {
+      return work;
+    }
+
+    Promise<RowSet<Row>> promise = Promise.promise();
+    long deadlineTimer = vertx.setTimer(Math.max(1, deadline.remainingMs()), id -> {
+      if (promise.tryFail(exceeded(operation))) {
+        cancel.run();
+      }
+    });
+
+    work.onComplete(ar -> {
+      vertx.cancelTimer(deadlineTimer);
+      if (ar.succeeded()) {
+        promise.tryComplete(ar.result());
+      } else {
+        promise.tryFail(ar.cause());
+      }
+    });
+
+    return promise.future();
+  }
+
+  private DeadlineExceededException exceeded(String operation) {
+    deadlinesExceeded.add(1, Attributes.of(OPERATION, operation));
+    return new DeadlineExceededException("Request deadline exceeded");
+  }
+
+  /**
+   * Runs a read on {@code first}; if it has not answered within the
+   * operation's hedge delay and the budget allows, issues it again on
+   * {@code alternate}. The first success wins and the other attempt is
+   * cancelled on the server. When both are the same pool, the hedge is only
+   * sent if that pool has a free connection and no queue, so it never waits
+   * behind the read it is meant to overtake.
+   */
+  private Future<RowSet<Row>> hedgedRead(String operation, MonitoredPool first, MonitoredPool alternate, String sql,
+      Tuple args, boolean explainable) {
+    if (!hedgePolicy.enabled()) {
+      return execute(first, operation, explainable, sql, args);
+    }
+
+    Promise<RowSet<Row>> promise = Promise.promise();
+    List<Attempt> attempts = new ArrayList<>(2);
+
+    Attempt original = new Attempt(first, operation, explainable, sql, args);
+    attempts.add(original);
+    original.future.onComplete(ar -> settle(operation, attempts, original, ar, promise));
+
+    long delayMs = hedgePolicy.delayMs(operation);
+    if (delayMs > 0) {
+      long hedgeTimer = vertx.setTimer(delayMs, id -> {
+        if (promise.future().isComplete()) {
+          return;
+        }
+        if (alternate == first && (first.waiting() > 0 || first.inUse() >= first.maxSize)) {
+          hedge(operation, "no_capacity");
+          return;
+        }
+        if (!hedgePolicy.tryAcquire(operation)) {
+          hedge(operation, "budget_exhausted");
+          return;
+        }
+
+        Attempt hedge = new Attempt(alternate, operation, explainable, sql, args);
+        attempts.add(hedge);
+        hedge.future.onComplete(ar -> settle(operation, attempts, hedge, ar, promise));
+      });
+      promise.future().onComplete(ar -> vertx.cancelTimer(hedgeTimer));
+    }
+
+    return bounded(operation, promise.future(), () -> {
+      promise.tryFail(new DeadlineExceededException("Request deadline exceeded"));
+      attempts.forEach(attempt -> cancelLoser(operation, attempt));
+    });
+  }
+
+  private void settle(String operation, List<Attempt> attempts, Attempt attempt, AsyncResult<RowSet<Row>> ar,
+      Promise<RowSet<Row>> promise) {
+    attempt.done = true;
+
+    if (ar.succeeded()) {
+      hedgePolicy.recordLatency(operation, attempt.elapsedMs());
+      if (promise.tryComplete(ar.result()) && attempts.size() > 1) {
+        hedge(operation, attempt == attempts.get(0) ? "original_won" : "hedge_won");
+        attempts.forEach(other -> {
+          if (other != attempt) {
+            cancelLoser(operation, other);
+          }
+        });
+      }
+      return;
+    }
+
+    if (attempts.stream().allMatch(a -> a.done) && promise.tryFail(ar.cause()) && attempts.size() > 1) {
+      hedge(operation, "failed");
+    }
+  }
+
+  private void cancelLoser(String operation, Attempt attempt) {
+    if (!attempt.done && !attempt.cancelled) {
+      hedgePolicy.recordCensored(operation, attempt.elapsedMs());
+    }
+    attempt.cancel();
+  }
+
+  private MonitoredPool alternateFor(Replica replica) {
+    for (Replica other : replicas) {
+      if (other != replica && other.healthy) {
+        return other.pool;
+      }
+    }
+    return primary;
+  }
+
+  private List<MonitoredPool> pools() {
+    List<MonitoredPool> pools = new ArrayList<>(replicas.size() + 1);
+    pools.add(primary);
+    replicas.forEach(replica -> pools.add(replica.pool));
+    return pools;
+  }
+
+  private void hedge(String operation, String outcome) {
+    readHedges.add(1, Attributes.of(OPERATION, operation, OUTCOME, outcome));
+  }
+
+  private Replica pickReplica() {
+    int size = replicas.size();
+    if (size == 0) {
+      return null;
+    }
+
+    int start = Math.floorMod(next.getAndIncrement(), size);
+    for (int i = 0; i < size; i++) {
+      Replica replica = replicas.get((start + i) % size);
+      if (replica.healthy) {
+        return replica;
+      }
+    }
+    return null;
+  }
+
+  private void route(String operation, String target, String reason) {
+    readsRouted.add(1, Attributes.of(OPERATION, operation, TARGET, target, REASON, reason));
+  }
+
+  private void checkLag() {
+    for (Replica replica : replicas) {
+      replica.pool.pool.query(LAG_QUERY).execute()
+          .onSuccess(rows -> {
+            Long lag = rows.iterator().next().getLong("lag_ms");
+            replica.lagMs = lag != null ? lag : 0;
+            boolean healthy = replica.lagMs <= maxLagMs;
+            if (healthy != replica.healthy) {
+              logger.info("Replica {} is now {} (lag {} ms)", replica.name, healthy ? "in rotation" : "lagging",
+                  replica.lagMs);
+            }
+            replica.healthy = healthy;
+          })
+          .onFailure(err -> {
+            if (replica.healthy) {
+              logger.warn("Replica {} is unreachable: {}", replica.name, err.getMessage());
+            }
+            replica.lagMs = -1;
+            replica.healthy = false;
+          });
+    }
+  }
+
+  private void pruneRecentWrites() {
+    long now = System.currentTimeMillis();
+    recentWrites.values().removeIf(until -> until <= now);
+  }
+}
@@ -0,0 +1,114 @@
+package com.sanedge.example_crud.repository;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-operation state for hedged reads: a rolling window of recent read
+ * latencies, from which the hedge delay is taken as a percentile, and a
+ * budget that earns {@code DB_HEDGE_BUDGET_PERCENT} of a hedge per read so
+ * hedges stay a bounded share of each operation's traffic.
+ *
+ * A losing attempt cancelled after {@code t} ms is recorded as a censored
+ * sample of {@code t}, so the window is not left with only the winners.
+ */
+class HedgePolicy {
+  private static final int WINDOW = 256;
+  private static final int RECOMPUTE_EVERY = 32;
+  private static final double MAX_CREDITS = 10;
+
+  private final boolean enabled;
+  private final double percentile;
+  private final long minDelayMs;
+  private final double creditPerRead;
+  private final int minSamples;
+
+  private final Map<String, OperationStats> stats = new ConcurrentHashMap<>();
+
+  HedgePolicy() {
+    this(Boolean.parseBoolean(System.getenv().getOrDefault("DB_HEDGE_ENABLED", "false")),
+        Double.parseDouble(System.getenv().getOrDefault("DB_HEDGE_PERCENTILE", "95")),
+        Long.parseLong(System.getenv().getOrDefault("DB_HEDGE_MIN_DELAY_MS", "5")),
+        Double.parseDouble(System.getenv().getOrDefault("DB_HEDGE_BUDGET_PERCENT", "5")),
+        Integer.parseInt(System.getenv().getOrDefault("DB_HEDGE_MIN_SAMPLES", "100")));
+  }
+
+  HedgePolicy(boolean enabled, double percentile, long minDelayMs, double budgetPercent, int minSamples) {
+    this.enabled = enabled;
+    this.percentile = percentile;
+    this.minDelayMs = minDelayMs;
+    this.creditPerRead = budgetPercent / 100;
+    this.minSamples = minSamples;
+  }
+
+  boolean enabled() {
+    return enabled;
+  }
+
+  /**
+   * Delay after which a read of {@code operation} may be hedged, or -1 while
+   * there are too few samples to know what slow looks like.
+   */
+  long delayMs(String operation) {
+    return stats(operation).delayMs();
+  }
+
+  void recordLatency(String operation, long latencyMs) {
+    stats(operation).record(latencyMs, true);
+  }
+
+  /**
+   * Records an attempt cancelled after {@code elapsedMs}, whose latency is at
+   * least that. It earns no budget: the read it belonged to already did.
+   */
+  void recordCensored(String operation, long elapsedMs) {
+    stats(operation).record(elapsedMs, false);
+  }
+
+  boolean tryAcquire(String operation) {
+    return stats(operation).tryAcquire();
+  }
+
+  private OperationStats stats(String operation) {
+    return stats.computeIfAbsent(operation, op -> new OperationStats());
+  }
+
+  private final class OperationStats {
+    private final long[] samples = new long[WINDOW];
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private long delayMs = -1;
+    private double credits;
+
+    synchronized void record(long latencyMs, boolean earnsCredit) {
+      samples[next] = latencyMs;
+      next = (next + 1) % WINDOW;
+      count = Math.min(count + 1, WINDOW);
+      if (earnsCredit) {
+        credits = Math.min(MAX_CREDITS, credits + creditPerRead);
+      }
+
+      if (++sinceRecompute >= RECOMPUTE_EVERY && count >= Math.min(minSamples, WINDOW)) {
+        sinceRecompute = 0;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        delayMs = Math.max(minDelayMs, sorted[Math.max(0, Math.min(index, count - 1))]);
+      }
+    }
+
+    synchronized long delayMs() {
+      return delayMs;
+    }
+
+    synchronized boolean tryAcquire() {
+      if (credits < 1) {
+        return false;
+      }
+      credits -= 1;
+      return true;
+    }
+  }
+}
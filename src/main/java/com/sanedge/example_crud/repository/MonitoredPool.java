@@ -0,0 +1,125 @@
+package com.sanedge.example_crud.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.DoubleHistogram;
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Pool;
+import io.vertx.sqlclient.SqlConnection;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * A pool whose connections are always borrowed explicitly, so the router can
+ * see how long each statement queued for a connection, how long it held
+ * one, and how many connections are in use or waited for at any moment.
+ */
+final class MonitoredPool {
+  static final AttributeKey<String> POOL = AttributeKey.stringKey("pool");
+  static final AttributeKey<String> STATEMENT = AttributeKey.stringKey("statement");
+  private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+
+  final String name;
+  final Pool pool;
+  final int maxSize;
+
+  private final DoubleHistogram acquireWait;
+  private final DoubleHistogram statementDuration;
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final AtomicInteger inUse = new AtomicInteger();
+
+  MonitoredPool(String name, Pool pool, int maxSize, DoubleHistogram acquireWait,
+      DoubleHistogram statementDuration) {
+    this.name = name;
+    this.pool = pool;
+    this.maxSize = maxSize;
+    this.acquireWait = acquireWait;
+    this.statementDuration = statementDuration;
+  }
+
+  /**
+   * Borrows a connection for {@code work} and returns it to the pool when
+   * the work completes. {@code statement} is the repository method name.
+   */
+  <T> Future<T> withConnection(String statement, Function<SqlConnection, Future<T>> work) {
+    long requested = System.nanoTime();
+    waiting.incrementAndGet();
+
+    return pool.getConnection()
+        .onComplete(ar -> waiting.decrementAndGet())
+        .compose(conn -> {
+          long acquired = System.nanoTime();
+          acquireWait.record(seconds(acquired - requested), Attributes.of(POOL, name, STATEMENT, statement));
+          inUse.incrementAndGet();
+
+          Future<T> result;
+          try {
+            result = work.apply(conn);
+          } catch (RuntimeException e) {
+            result = Future.failedFuture(e);
+          }
+
+          return result
+              .onComplete(ar -> {
+                inUse.decrementAndGet();
+                statementDuration.record(seconds(System.nanoTime() - acquired),
+                    Attributes.of(POOL, name, STATEMENT, statement, OUTCOME, ar.succeeded() ? "success" : "error"));
+              })
+              .eventually(conn::close);
+        });
+  }
+
+  <T> Future<T> withTransaction(String statement, Function<SqlConnection, Future<T>> work) {
+    return withConnection(statement, conn -> conn.begin()
+        .compose(tx -> work.apply(conn)
+            .compose(
+                result -> tx.commit().map(result),
+                err -> tx.rollback().transform(ar -> Future.<T>failedFuture(err)))));
+  }
+
+  /**
+   * Opens {@code connections} connections by borrowing them all at once and
+   * runs {@code statements} on each. Only executed statements enter a
+   * connection's prepared statement cache; {@code prepare()} bypasses it.
+   */
+  Future<Void> warmUp(int connections, Map<String, Tuple> statements) {
+    List<Future<Void>> warmed = new ArrayList<>(connections);
+    for (int i = 0; i < connections; i++) {
+      warmed.add(withConnection("DataSourceRouter.warmUp", conn -> {
+        Future<Void> prepared = Future.succeededFuture();
+        for (Map.Entry<String, Tuple> statement : statements.entrySet()) {
+          prepared = prepared.compose(v -> conn.preparedQuery(statement.getKey())
+              .execute(statement.getValue())
+              .<Void>mapEmpty());
+        }
+        return prepared;
+      }));
+    }
+    return Future.join(warmed).mapEmpty();
+  }
+
+  int waiting() {
+    return waiting.get();
+  }
+
+  int inUse() {
+    return inUse.get();
+  }
+
+  /**
+   * Open connections not lent out through this wrapper. Approximate, since
+   * {@link Pool#size()} and the in-use count are read separately.
+   */
+  int idle() {
+    return Math.max(0, pool.size() - inUse.get());
+  }
+
+  private static double seconds(long nanos) {
+    return nanos / 1_000_000_000.0;
+  }
+}
@@ -1,53 +1,106 @@
 package com.sanedge.example_crud.repository;
 
-import java.time.LocalDateTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.sanedge.example_crud.model.RefreshToken;
+import com.sanedge.example_crud.service.RedisService;
 
 import io.vertx.core.Future;
-import io.vertx.sqlclient.Pool;
+import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.Tuple;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Write-through refresh token store: Redis serves lookups, Postgres is the
+ * durable copy.
+ *
+ * <ul>
+ * <li>Writes go to Postgres first, then Redis with TTL = expiration. A failed
+ * Redis write is logged only; the next lookup falls back to Postgres.</li>
+ * <li>Lookups read Redis first. On a miss the Postgres row is returned and,
+ * if not expired, written back to Redis (rehydration).</li>
+ * <li>Deletes go to Postgres first, then evict Redis. A failed eviction fails
+ * the call so a revoked token is never reported as revoked while still being
+ * served from Redis.</li>
+ * <li>A lookup that reads Postgres just before a concurrent delete can
+ * rehydrate a revoked token; rehydrated entries are capped at
+ * {@link #REHYDRATE_TTL} to bound that window.</li>
+ * </ul>
+ */
 @RequiredArgsConstructor
 public class RefreshTokenRepository {
-  private final Pool client;
+  private static final Logger logger = LoggerFactory.getLogger(RefreshTokenRepository.class);
+
+  static final Duration REHYDRATE_TTL = Duration.ofMinutes(5);
+
+  private static final String FIND_BY_TOKEN_IN_DATABASE_SQL = """
+      SELECT refresh_token_id, user_id, token, expiration, created_at, updated_at, deleted_at
+      FROM refresh_tokens
+      WHERE token = $1 AND deleted_at IS NULL
+      """;
+
+  private static final String FIND_LATEST_BY_USER_ID_SQL = """
+      SELECT refresh_token_id, user_id, token, expiration, created_at, updated_at, deleted_at
+      FROM refresh_tokens
+      WHERE user_id = $1 AND deleted_at IS NULL
+      ORDER BY created_at DESC
+      LIMIT 1
+      """;
+
+  // Hot reads run on every connection by DataSourceRouter.warmUp(), with
+  // cheap arguments, to fill the prepared statement cache.
+  static final Map<String, Tuple> WARMUP_READS = Map.of(
+      FIND_BY_TOKEN_IN_DATABASE_SQL, Tuple.of(""),
+      FIND_LATEST_BY_USER_ID_SQL, Tuple.of(0));
+
+  private final DataSourceRouter db;
+  private final RedisService redisService;
 
   public Future<RefreshToken> create(
       Integer userId,
       String token,
-      LocalDateTime expiration) {
-    return client
+      Instant expiration) {
+    return db.write("RefreshTokenRepository.create")
         .preparedQuery("""
             INSERT INTO refresh_tokens (user_id, token, expiration, created_at, updated_at)
             VALUES ($1, $2, $3, current_timestamp, current_timestamp)
             RETURNING refresh_token_id, user_id, token, expiration, created_at, updated_at, deleted_at
             """)
-        .execute(Tuple.of(userId, token, expiration))
-        .map(this::mapSingleOrNull);
+        .execute(Tuple.of(userId, token, expiration.atOffset(ZoneOffset.UTC)))
+        .map(this::mapSingleOrNull)
+        .compose(rt -> cache(rt, null).map(rt));
   }
 
   public Future<RefreshToken> findByToken(String token) {
-    return client
-        .preparedQuery("""
-            SELECT refresh_token_id, user_id, token, expiration, created_at, updated_at, deleted_at
-            FROM refresh_tokens
-            WHERE token = $1 AND deleted_at IS NULL
-            """)
-        .execute(Tuple.of(token))
-        .map(this::mapSingleOrNull);
+    return redisService.getJson(tokenKey(token))
+        .recover(err -> {
+          logger.warn("Refresh token cache lookup failed, falling back to database: {}", err.getMessage());
+          return Future.succeededFuture(null);
+        })
+        .compose(cached -> {
+          RefreshToken rt = RefreshToken.fromJson(cached);
+          if (rt != null && isLive(rt, Instant.now())) {
+            return Future.succeededFuture(rt);
+          }
+          return findByTokenInDatabase(token)
+              .compose(row -> row != null
+                  ? cache(row, REHYDRATE_TTL).map(row)
+                  : Future.<RefreshToken>succeededFuture());
+        });
   }
 
   public Future<RefreshToken> findLatestByUserId(Integer userId) {
-    return client
-        .preparedQuery("""
-            SELECT refresh_token_id, user_id, token, expiration, created_at, updated_at, deleted_at
-            FROM refresh_tokens
-            WHERE user_id = $1 AND deleted_at IS NULL
-            ORDER BY created_at DESC
-            LIMIT 1
-            """)
+    return db.readForUser(userId, "RefreshTokenRepository.findLatestByUserId")
+        .preparedQuery(FIND_LATEST_BY_USER_ID_SQL)
         .execute(Tuple.of(userId))
         .map(this::mapSingleOrNull);
   }
@@ -55,8 +108,8 @@ public class RefreshTokenRepository {
   public Future<RefreshToken> updateByUserId(
       Integer userId,
       String newToken,
-      java.sql.Timestamp newExpiration) {
-    return client
+      Instant newExpiration) {
+    return db.write("RefreshTokenRepository.updateByUserId")
         .preparedQuery("""
             UPDATE refresh_tokens
             SET token = $2,
@@ -65,12 +118,79 @@ public class RefreshTokenRepository {
             WHERE user_id = $1 AND deleted_at IS NULL
             RETURNING refresh_token_id, user_id, token, expiration, created_at, updated_at, deleted_at
             """)
-        .execute(Tuple.of(userId, newToken, newExpiration))
-        .map(this::mapSingleOrNull);
+        .execute(Tuple.of(userId, newToken, newExpiration.atOffset(ZoneOffset.UTC)))
+        .map(this::mapSingleOrNull)
+        .compose(rt -> evictUser(userId)
+            .compose(v -> rt != null ? cache(rt, null) : Future.<Void>succeededFuture())
+            .map(rt));
   }
 
   public Future<Void> deleteByToken(String token) {
-    return client
+    return deleteTokenRow(token)
+        .compose(v -> redisService.delete(tokenKey(token)))
+        .mapEmpty();
+  }
+
+  public Future<Void> deleteByUserId(Integer userId) {
+    return deleteUserRows(userId)
+        .compose(v -> evictUser(userId));
+  }
+
+  public Future<Integer> deleteExpired(int limit) {
+    return db.write("RefreshTokenRepository.deleteExpired")
+        .preparedQuery("""
+            DELETE FROM refresh_tokens
+            WHERE refresh_token_id IN (
+              SELECT refresh_token_id
+              FROM refresh_tokens
+              WHERE expiration < current_timestamp
+              ORDER BY expiration
+              LIMIT $1
+              FOR UPDATE SKIP LOCKED
+            )
+            """)
+        .execute(Tuple.of(limit))
+        .map(RowSet::rowCount);
+  }
+
+  static Duration cacheTtl(RefreshToken rt, Instant now, Duration cap) {
+    if (rt.getExpiration() == null) {
+      return Duration.ZERO;
+    }
+
+    Duration remaining = Duration.between(now, rt.getExpiration());
+    if (remaining.isNegative()) {
+      return Duration.ZERO;
+    }
+
+    return cap != null && remaining.compareTo(cap) > 0 ? cap : remaining;
+  }
+
+  static boolean isLive(RefreshToken rt, Instant now) {
+    return rt.getDeletedAt() == null
+        && rt.getExpiration() != null
+        && rt.getExpiration().isAfter(now);
+  }
+
+  static String tokenKey(String token) {
+    return "refresh_token:" + token;
+  }
+
+  static String userKey(Integer userId) {
+    return "refresh_token:user:" + userId;
+  }
+
+  Future<RefreshToken> findByTokenInDatabase(String token) {
+    // Pinned to the primary: a lagging replica could still return a revoked
+    // token, which would then be rehydrated into Redis.
+    return db.readPrimary("RefreshTokenRepository.findByTokenInDatabase")
+        .preparedQuery(FIND_BY_TOKEN_IN_DATABASE_SQL)
+        .execute(Tuple.of(token))
+        .map(this::mapSingleOrNull);
+  }
+
+  Future<Void> deleteTokenRow(String token) {
+    return db.write("RefreshTokenRepository.deleteByToken")
         .preparedQuery("""
             DELETE FROM refresh_tokens
             WHERE token = $1
@@ -79,8 +199,8 @@ public class RefreshTokenRepository {
         .mapEmpty();
   }
 
-  public Future<Void> deleteByUserId(Integer userId) {
-    return client
+  Future<Void> deleteUserRows(Integer userId) {
+    return db.write("RefreshTokenRepository.deleteByUserId")
         .preparedQuery("""
             DELETE FROM refresh_tokens
             WHERE user_id = $1
@@ -89,6 +209,40 @@ public class RefreshTokenRepository {
         .mapEmpty();
   }
 
+  private Future<Void> cache(RefreshToken rt, Duration cap) {
+    if (rt == null) {
+      return Future.succeededFuture();
+    }
+
+    Duration ttl = cacheTtl(rt, Instant.now(), cap);
+    if (ttl.toMillis() < 1000) {
+      return Future.succeededFuture();
+    }
+
+    JsonObject json = rt.toJson();
+
+    return redisService.setJson(tokenKey(rt.getToken()), json, ttl)
+        .compose(ok -> redisService.addToSet(userKey(rt.getUserId()), rt.getToken(), ttl))
+        .recover(err -> {
+          logger.warn("Failed to cache refresh token for user {}: {}", rt.getUserId(), err.getMessage());
+          return Future.succeededFuture();
+        })
+        .mapEmpty();
+  }
+
+  private Future<Void> evictUser(Integer userId) {
+    String userKey = userKey(userId);
+
+    return redisService.members(userKey)
+        .compose(tokens -> {
+          List<String> keys = new ArrayList<>(tokens.size() + 1);
+          tokens.forEach(token -> keys.add(tokenKey(token)));
+          keys.add(userKey);
+          return redisService.delete(keys);
+        })
+        .mapEmpty();
+  }
+
   private RefreshToken mapSingleOrNull(RowSet<io.vertx.sqlclient.Row> rows) {
     return rows.iterator().hasNext()
         ? RefreshToken.fromRow(rows.iterator().next())
@@ -2,7 +2,9 @@ package com.sanedge.example_crud.repository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import com.sanedge.example_crud.domain.requests.Deadline;
 import com.sanedge.example_crud.domain.requests.role.CreateRoleRequest;
 import com.sanedge.example_crud.domain.requests.role.FindAllRoles;
 import com.sanedge.example_crud.domain.requests.role.UpdateRoleRequest;
@@ -10,7 +12,6 @@ import com.sanedge.example_crud.domain.response.api.PagedResult;
 import com.sanedge.example_crud.model.Role;
 
 import io.vertx.core.Future;
-import io.vertx.sqlclient.Pool;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.Tuple;
@@ -18,26 +19,52 @@ import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
 public class RoleRepository {
-  private final Pool client;
+  private static final String GET_ROLES_SQL = """
+      SELECT
+          role_id,
+          role_name,
+          created_at,
+          updated_at,
+          deleted_at,
+          COUNT(*) OVER() AS total_count
+      FROM roles
+      WHERE ($1::TEXT IS NULL OR role_name ILIKE '%' || $1 || '%')
+      ORDER BY created_at ASC
+      LIMIT $2 OFFSET $3
+      """;
+
+  private static final String GET_ROLE_BY_ID_SQL = """
+      SELECT role_id, role_name, created_at, updated_at, deleted_at
+      FROM roles
+      WHERE role_id = $1 AND deleted_at IS NULL
+      """;
+
+  private static final String GET_ALL_ACTIVE_ROLES_SQL = """
+      SELECT role_id, role_name, created_at, updated_at, deleted_at
+      FROM roles
+      WHERE deleted_at IS NULL
+      ORDER BY role_id
+      """;
+
+  // Hot reads run on every connection by DataSourceRouter.warmUp(), with
+  // cheap arguments, to fill the prepared statement cache.
+  static final Map<String, Tuple> WARMUP_READS = Map.of(
+      GET_ROLES_SQL, Tuple.of(null, 0, 0),
+      GET_ROLE_BY_ID_SQL, Tuple.of(0),
+      GET_ALL_ACTIVE_ROLES_SQL, Tuple.tuple());
+
+  private final DataSourceRouter db;
+
+  public RoleRepository withDeadline(Deadline deadline) {
+    return deadline != null ? new RoleRepository(db.withDeadline(deadline)) : this;
+  }
 
   public Future<PagedResult<Role>> getRoles(
       FindAllRoles req) {
     int offset = (req.getPage() > 0 ? req.getPage() - 1 : 0) * req.getPageSize();
 
-    return client
-        .preparedQuery("""
-            SELECT
-                role_id,
-                role_name,
-                created_at,
-                updated_at,
-                deleted_at,
-                COUNT(*) OVER() AS total_count
-            FROM roles
-            WHERE ($1::TEXT IS NULL OR role_name ILIKE '%' || $1 || '%')
-            ORDER BY created_at ASC
-            LIMIT $2 OFFSET $3
-            """)
+    return db.readRoles("RoleRepository.getRoles")
+        .preparedQuery(GET_ROLES_SQL)
         .execute(Tuple.of(
             normalizeSearch(req.getSearch()),
             req.getPageSize(),
@@ -49,7 +76,7 @@ public class RoleRepository {
       FindAllRoles req) {
     int offset = (req.getPage() > 0 ? req.getPage() - 1 : 0) * req.getPageSize();
 
-    return client
+    return db.readRoles("RoleRepository.getActiveRoles")
         .preparedQuery("""
             SELECT
                 role_id,
@@ -75,7 +102,7 @@ public class RoleRepository {
       FindAllRoles req) {
     int offset = (req.getPage() > 0 ? req.getPage() - 1 : 0) * req.getPageSize();
 
-    return client
+    return db.readRoles("RoleRepository.getTrashedRoles")
         .preparedQuery("""
             SELECT
                 role_id,
@@ -97,19 +124,22 @@ public class RoleRepository {
         .map(this::mapPagedRoles);
   }
 
+  public Future<List<Role>> getAllActiveRoles() {
+    return db.readPrimary("RoleRepository.getAllActiveRoles")
+        .preparedQuery(GET_ALL_ACTIVE_ROLES_SQL)
+        .execute()
+        .map(Role::fromRows);
+  }
+
   public Future<Role> getRoleById(Integer roleId) {
-    return client
-        .preparedQuery("""
-              SELECT role_id, role_name, created_at, updated_at, deleted_at
-              FROM roles
-              WHERE role_id = $1 AND deleted_at IS NULL
-            """)
+    return db.readRoles("RoleRepository.getRoleById")
+        .preparedQuery(GET_ROLE_BY_ID_SQL)
         .execute(Tuple.of(roleId))
         .map(this::mapSingleOrNull);
   }
 
   public Future<Role> getRoleByName(String roleName) {
-    return client
+    return db.readRoles("RoleRepository.getRoleByName")
         .preparedQuery("""
               SELECT role_id, role_name, created_at, updated_at, deleted_at
               FROM roles
@@ -120,7 +150,7 @@ public class RoleRepository {
   }
 
   public Future<Role> createRole(CreateRoleRequest req) {
-    return client
+    return db.writeRoles("RoleRepository.createRole")
         .preparedQuery("""
               INSERT INTO roles (role_name)
               VALUES ($1)
@@ -131,7 +161,7 @@ public class RoleRepository {
   }
 
   public Future<Role> updateRole(UpdateRoleRequest req) {
-    return client
+    return db.writeRoles("RoleRepository.updateRole")
         .preparedQuery("""
               UPDATE roles
               SET role_name = $1, updated_at = CURRENT_TIMESTAMP
@@ -142,7 +172,7 @@ public class RoleRepository {
   }
 
   public Future<Role> trashed(Integer roleId) {
-    return client
+    return db.writeRoles("RoleRepository.trashed")
         .preparedQuery("""
               UPDATE roles
               SET deleted_at = CURRENT_TIMESTAMP
@@ -153,7 +183,7 @@ public class RoleRepository {
   }
 
   public Future<Role> restore(Integer roleId) {
-    return client
+    return db.writeRoles("RoleRepository.restore")
         .preparedQuery("""
               UPDATE roles
               SET deleted_at = null
@@ -164,12 +194,53 @@ public class RoleRepository {
   }
 
   public Future<Void> deletePermanent(Integer roleId) {
-    return client
+    return db.writeRoles("RoleRepository.deletePermanent")
         .preparedQuery("DELETE FROM roles WHERE role_id = $1")
         .execute(Tuple.of(roleId))
         .mapEmpty();
   }
 
+  public Future<List<Role>> trashedBatch(Integer[] roleIds) {
+    return db.writeRoles("RoleRepository.trashedBatch")
+        .preparedQuery("""
+              UPDATE roles
+              SET deleted_at = CURRENT_TIMESTAMP
+              WHERE role_id = ANY($1) AND deleted_at IS NULL
+              RETURNING role_id, role_name, created_at, updated_at, deleted_at
+            """)
+        .execute(Tuple.of(roleIds))
+        .map(this::mapRoles);
+  }
+
+  public Future<List<Role>> restoreBatch(Integer[] roleIds) {
+    return db.writeRoles("RoleRepository.restoreBatch")
+        .preparedQuery("""
+              UPDATE roles
+              SET deleted_at = null
+              WHERE role_id = ANY($1) AND deleted_at IS NOT NULL
+              RETURNING role_id, role_name, created_at, updated_at, deleted_at
+            """)
+        .execute(Tuple.of(roleIds))
+        .map(this::mapRoles);
+  }
+
+  public Future<List<Integer>> deletePermanentBatch(Integer[] roleIds) {
+    return db.writeRoles("RoleRepository.deletePermanentBatch")
+        .preparedQuery("DELETE FROM roles WHERE role_id = ANY($1) RETURNING role_id")
+        .execute(Tuple.of(roleIds))
+        .map(rows -> {
+          List<Integer> deleted = new ArrayList<>(rows.size());
+          for (Row row : rows) {
+            deleted.add(row.getInteger("role_id"));
+          }
+          return deleted;
+        });
+  }
+
+  private List<Role> mapRoles(RowSet<Row> rows) {
+    return Role.fromRows(rows);
+  }
+
   private String normalizeSearch(String search) {
     if (search == null || search.isBlank()) {
       return null;
@@ -182,14 +253,16 @@ public class RoleRepository {
   }
 
   private PagedResult<Role> mapPagedRoles(RowSet<Row> rows) {
-    List<Role> roles = new ArrayList<>();
+    List<Role> roles = new ArrayList<>(rows.size());
     int total = 0;
 
+    Role.Columns columns = null;
     for (Row row : rows) {
-      roles.add(Role.fromRow(row));
-      if (total == 0) {
-        total = row.getInteger("total_count");
+      if (columns == null) {
+        columns = Role.Columns.of(row);
+        total = row.getInteger(row.getColumnIndex("total_count"));
       }
+      roles.add(Role.fromRow(row, columns));
     }
 
     return new PagedResult<>(roles, total);
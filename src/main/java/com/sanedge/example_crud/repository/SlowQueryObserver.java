@@ -0,0 +1,234 @@
+package com.sanedge.example_crud.repository;
+
+import java.lang.reflect.Array;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * Logs statements slower than {@code SLOW_QUERY_THRESHOLD_MS} with their SQL
+ * and parameter types (never values), and for a sample of slow reads runs
+ * {@code EXPLAIN (ANALYZE, BUFFERS)} in a read-only transaction that is
+ * rolled back. String literals in captured plans are masked, since
+ * conditions such as {@code Index Cond} quote the bound values. Plans that
+ * sequentially scan at least
+ * {@code SLOW_QUERY_SEQ_SCAN_MIN_ROWS} rows are flagged. The latest plan per
+ * statement is kept for {@code GET /admin/slow-queries}.
+ */
+public class SlowQueryObserver {
+  private static final Logger logger = LoggerFactory.getLogger(SlowQueryObserver.class);
+
+  private static final AttributeKey<String> STATEMENT = AttributeKey.stringKey("statement");
+  private static final AttributeKey<String> TABLE = AttributeKey.stringKey("table");
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+  private final LongCounter slowQueries;
+  private final LongCounter seqScans;
+
+  private final long thresholdMs;
+  private final double explainSampleRate;
+  private final long explainIntervalMs;
+  private final long explainTimeoutMs;
+  private final long seqScanMinRows;
+
+  private final Map<String, JsonObject> latestPlans = new ConcurrentHashMap<>();
+  private final Map<String, Long> lastExplained = new ConcurrentHashMap<>();
+  private final Set<String> explaining = ConcurrentHashMap.newKeySet();
+
+  public SlowQueryObserver(OpenTelemetry openTelemetry) {
+    Meter meter = openTelemetry.getMeter("slow-query-observer");
+    this.slowQueries = meter.counterBuilder("db_slow_queries_total")
+        .setDescription("Statements slower than SLOW_QUERY_THRESHOLD_MS, by repository method")
+        .build();
+    this.seqScans = meter.counterBuilder("db_slow_query_seq_scans_total")
+        .setDescription("Sampled slow-query plans with a sequential scan of a large table")
+        .build();
+
+    this.thresholdMs = Long.parseLong(System.getenv().getOrDefault("SLOW_QUERY_THRESHOLD_MS", "200"));
+    this.explainSampleRate = Double.parseDouble(System.getenv().getOrDefault("SLOW_QUERY_EXPLAIN_SAMPLE_RATE", "0.1"));
+    this.explainIntervalMs = Long.parseLong(System.getenv().getOrDefault("SLOW_QUERY_EXPLAIN_INTERVAL_MS", "60000"));
+    this.explainTimeoutMs = Long.parseLong(System.getenv().getOrDefault("SLOW_QUERY_EXPLAIN_TIMEOUT_MS", "5000"));
+    this.seqScanMinRows = Long.parseLong(System.getenv().getOrDefault("SLOW_QUERY_SEQ_SCAN_MIN_ROWS", "10000"));
+  }
+
+  /**
+   * Called by the router after every statement. {@code explainable} is true
+   * only for reads that are safe to run again under {@code EXPLAIN ANALYZE}
+   * and do not look up credentials.
+   */
+  void observe(MonitoredPool pool, String statement, String sql, Tuple args, boolean explainable, long elapsedMs) {
+    if (elapsedMs < thresholdMs) {
+      return;
+    }
+
+    String compactSql = compact(sql);
+    String shape = shape(args);
+    slowQueries.add(1, Attributes.of(STATEMENT, statement));
+    logger.warn("Slow query {} took {} ms on {}: {} params {}", statement, elapsedMs, pool.name, compactSql, shape);
+
+    if (explainable && shouldExplain(statement)) {
+      explain(pool, statement, sql, compactSql, shape, args, elapsedMs);
+    }
+  }
+
+  /**
+   * Latest captured plan of each statement, slowest first.
+   */
+  public List<JsonObject> latestPlans() {
+    List<JsonObject> plans = new ArrayList<>(latestPlans.values());
+    plans.sort(Comparator.comparingLong((JsonObject plan) -> plan.getLong("durationMs")).reversed());
+    return plans;
+  }
+
+  private boolean shouldExplain(String statement) {
+    if (ThreadLocalRandom.current().nextDouble() >= explainSampleRate) {
+      return false;
+    }
+
+    long now = System.currentTimeMillis();
+    Long last = lastExplained.get(statement);
+    if (last != null && now - last < explainIntervalMs) {
+      return false;
+    }
+    if (!explaining.add(statement)) {
+      return false;
+    }
+    lastExplained.put(statement, now);
+    return true;
+  }
+
+  private void explain(MonitoredPool pool, String statement, String sql, String compactSql, String shape,
+      Tuple args, long elapsedMs) {
+    // Never take a connection that live traffic is already queueing for.
+    if (pool.waiting() > 0) {
+      explaining.remove(statement);
+      return;
+    }
+
+    pool.withConnection("SlowQueryObserver.explain", conn -> conn.begin()
+        .compose(tx -> conn
+            .query("SET TRANSACTION READ ONLY; SET LOCAL statement_timeout = " + explainTimeoutMs)
+            .execute()
+            .compose(v -> conn.preparedQuery("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql).execute(args))
+            .eventually(tx::rollback)))
+        .onSuccess(rows -> {
+          JsonObject plan = redact(planOf(rows.iterator().next()));
+          List<String> flagged = new ArrayList<>();
+          findSeqScans(plan.getJsonObject("Plan"), flagged, statement);
+
+          if (!flagged.isEmpty()) {
+            logger.warn("Plan of {} sequentially scans {}: {}", statement, String.join(", ", flagged), compactSql);
+          }
+
+          latestPlans.put(statement, new JsonObject()
+              .put("statement", statement)
+              .put("pool", pool.name)
+              .put("sql", compactSql)
+              .put("parameters", shape)
+              .put("durationMs", elapsedMs)
+              .put("capturedAt", Instant.now().toString())
+              .put("seqScans", new JsonArray(new ArrayList<>(flagged)))
+              .put("plan", plan));
+        })
+        .onFailure(err -> logger.debug("EXPLAIN of {} failed: {}", statement, err.getMessage()))
+        .onComplete(ar -> explaining.remove(statement));
+  }
+
+  private void findSeqScans(JsonObject node, List<String> flagged, String statement) {
+    if (node == null) {
+      return;
+    }
+
+    if ("Seq Scan".equals(node.getString("Node Type"))) {
+      long scanned = (node.getLong("Actual Rows", 0L) + node.getLong("Rows Removed by Filter", 0L))
+          * Math.max(1, node.getLong("Actual Loops", 1L));
+      if (scanned >= seqScanMinRows) {
+        String table = node.getString("Relation Name", "?");
+        flagged.add(table + " (" + scanned + " rows)");
+        seqScans.add(1, Attributes.of(STATEMENT, statement, TABLE, table));
+      }
+    }
+
+    JsonArray children = node.getJsonArray("Plans");
+    if (children != null) {
+      for (int i = 0; i < children.size(); i++) {
+        findSeqScans(children.getJsonObject(i), flagged, statement);
+      }
+    }
+  }
+
+  private static JsonObject planOf(Row row) {
+    Object value = row.getValue(0);
+    JsonArray plans = value instanceof JsonArray array ? array : new JsonArray(String.valueOf(value));
+    return plans.getJsonObject(0);
+  }
+
+  /**
+   * Masks quoted literals, e.g. {@code (email = 'a@b.c'::text)} in an
+   * {@code Index Cond} or {@code Filter}, everywhere in the plan tree.
+   */
+  static JsonObject redact(JsonObject node) {
+    JsonObject redacted = new JsonObject();
+    node.forEach(entry -> redacted.put(entry.getKey(), redactValue(entry.getValue())));
+    return redacted;
+  }
+
+  private static Object redactValue(Object value) {
+    if (value instanceof JsonObject object) {
+      return redact(object);
+    }
+    if (value instanceof JsonArray array) {
+      JsonArray redacted = new JsonArray();
+      array.forEach(item -> redacted.add(redactValue(item)));
+      return redacted;
+    }
+    if (value instanceof String text) {
+      return STRING_LITERAL.matcher(text).replaceAll("'?'");
+    }
+    return value;
+  }
+
+  private static String compact(String sql) {
+    return sql.strip().replaceAll("\\s+", " ");
+  }
+
+  private static String shape(Tuple args) {
+    StringBuilder shape = new StringBuilder("[");
+    for (int i = 0; i < args.size(); i++) {
+      if (i > 0) {
+        shape.append(", ");
+      }
+      Object value = args.getValue(i);
+      if (value == null) {
+        shape.append("null");
+      } else if (value instanceof String text) {
+        shape.append("String(").append(text.length()).append(')');
+      } else if (value.getClass().isArray()) {
+        shape.append(value.getClass().getComponentType().getSimpleName())
+            .append('[').append(Array.getLength(value)).append(']');
+      } else {
+        shape.append(value.getClass().getSimpleName());
+      }
+    }
+    return shape.append(']').toString();
+  }
+}
@@ -0,0 +1,143 @@
+package com.sanedge.example_crud.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sanedge.example_crud.domain.requests.user.CreateUserRequest;
+import com.sanedge.example_crud.exception.ConflictException;
+import com.sanedge.example_crud.model.User;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.metrics.LongHistogram;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * Opt-in write coalescer for single-user inserts. Concurrent creates that
+ * arrive within {@code USER_INSERT_COALESCE_WINDOW_MS}, or until
+ * {@code USER_INSERT_COALESCE_MAX_ROWS} are waiting, share one multi-row
+ * insert and one pooled connection. Each caller still gets its own row, or
+ * a {@link ConflictException} if its email was already taken.
+ */
+public class UserInsertCoalescer {
+  private static final Logger logger = LoggerFactory.getLogger(UserInsertCoalescer.class);
+
+  private final Vertx vertx;
+  private final UserRepository repository;
+  private final LongHistogram batchRows;
+
+  private final boolean enabled;
+  private final long windowMs;
+  private final int maxRows;
+
+  private List<Pending> pending = new ArrayList<>();
+  private long timerId = -1;
+
+  private record Pending(CreateUserRequest request, Promise<User> promise) {
+  }
+
+  public UserInsertCoalescer(Vertx vertx, UserRepository repository, OpenTelemetry openTelemetry) {
+    this.vertx = vertx;
+    this.repository = repository;
+    this.batchRows = openTelemetry.getMeter("user-insert-coalescer")
+        .histogramBuilder("user_insert_batch_rows")
+        .setDescription("Rows written per coalesced user insert")
+        .ofLongs()
+        .build();
+
+    this.enabled = Boolean.parseBoolean(System.getenv().getOrDefault("USER_INSERT_COALESCE_ENABLED", "false"));
+    this.windowMs = Math.max(1, Long.parseLong(System.getenv().getOrDefault("USER_INSERT_COALESCE_WINDOW_MS", "2")));
+    this.maxRows = Integer.parseInt(System.getenv().getOrDefault("USER_INSERT_COALESCE_MAX_ROWS", "64"));
+  }
+
+  public Future<User> createUser(CreateUserRequest req) {
+    if (!enabled) {
+      return repository.createUser(req);
+    }
+
+    Promise<User> promise = Promise.promise();
+    List<Pending> ready = null;
+
+    synchronized (this) {
+      pending.add(new Pending(req, promise));
+      if (pending.size() >= maxRows) {
+        ready = drain();
+      } else if (timerId == -1) {
+        timerId = vertx.setTimer(windowMs, id -> flushOnTimer());
+      }
+    }
+
+    if (ready != null) {
+      write(ready);
+    }
+    return promise.future();
+  }
+
+  private void flushOnTimer() {
+    List<Pending> ready;
+    synchronized (this) {
+      timerId = -1;
+      ready = drain();
+    }
+    write(ready);
+  }
+
+  private List<Pending> drain() {
+    if (timerId != -1) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+    List<Pending> batch = pending;
+    pending = new ArrayList<>();
+    return batch;
+  }
+
+  private void write(List<Pending> batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    batchRows.record(batch.size());
+
+    if (batch.size() == 1) {
+      Pending only = batch.get(0);
+      repository.createUser(only.request()).onComplete(only.promise());
+      return;
+    }
+
+    repository.insertUsers(batch.stream().map(Pending::request).toList())
+        .onSuccess(users -> {
+          Map<String, User> byEmail = new HashMap<>();
+          for (User user : users) {
+            byEmail.put(user.getEmail(), user);
+          }
+
+          // The first request for an email claims its row; any later
+          // duplicate in the same batch sees a conflict, as it would have
+          // with separate inserts.
+          for (Pending p : batch) {
+            User user = byEmail.remove(p.request().getEmail());
+            if (user != null) {
+              p.promise().complete(user);
+            } else {
+              p.promise().fail(new ConflictException("Email already registered: " + p.request().getEmail()));
+            }
+          }
+        })
+        .onFailure(err -> {
+          // A non-conflict error cannot be pinned on one row, so fall back to
+          // individual inserts and let each caller see its own outcome.
+          logger.warn("Coalesced insert of {} users failed, retrying individually: {}", batch.size(),
+              err.getMessage());
+          for (Pending p : batch) {
+            repository.createUser(p.request()).onComplete(p.promise());
+          }
+        });
+  }
+}
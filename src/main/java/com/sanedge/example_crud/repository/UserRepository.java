@@ -2,43 +2,208 @@ package com.sanedge.example_crud.repository;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
+import com.sanedge.example_crud.domain.requests.Deadline;
 import com.sanedge.example_crud.domain.requests.user.CreateUserRequest;
 import com.sanedge.example_crud.domain.requests.user.FindAllUsers;
 import com.sanedge.example_crud.domain.requests.user.UpdateUserRequest;
 import com.sanedge.example_crud.domain.response.api.PagedResult;
+import com.sanedge.example_crud.exception.ConflictException;
 import com.sanedge.example_crud.model.User;
 
 import io.vertx.core.Future;
-import io.vertx.sqlclient.Pool;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.pgclient.PgException;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.RowStream;
 import io.vertx.sqlclient.Tuple;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
 public class UserRepository {
-  private final Pool client;
+  private static final String UNIQUE_VIOLATION = "23505";
+
+  // Set once db/optional/partition_users_by_hash.sql has run: users.email is
+  // no longer UNIQUE, so bulk inserts claim emails in user_emails instead of
+  // relying on ON CONFLICT (email).
+  private static final boolean USER_EMAILS_TABLE = Boolean.parseBoolean(
+      System.getenv().getOrDefault("DB_USER_EMAILS_TABLE", "false"));
+
+  private static final String INSERT_USERS_SQL = """
+      INSERT INTO users (firstname, lastname, email, password)
+      SELECT * FROM unnest($1::text[], $2::text[], $3::text[], $4::text[])
+      ON CONFLICT (email) DO NOTHING
+      RETURNING user_id, firstname, lastname, email, created_at, updated_at, deleted_at
+      """;
+
+  // Ids are drawn up front so each claim names its row; the claim trigger
+  // then accepts the row it was claimed for. Duplicates within the batch
+  // lose the claim to their first occurrence.
+  private static final String INSERT_USERS_CLAIMING_EMAILS_SQL = """
+      WITH input AS (
+        SELECT t.*, nextval('users_user_id_seq')::int AS user_id
+        FROM unnest($1::text[], $2::text[], $3::text[], $4::text[]) AS t(firstname, lastname, email, password)
+      ),
+      claimed AS (
+        INSERT INTO user_emails (email, user_id)
+        SELECT email, user_id FROM input
+        ON CONFLICT (email) DO NOTHING
+        RETURNING user_id
+      )
+      INSERT INTO users (user_id, firstname, lastname, email, password)
+      SELECT i.user_id, i.firstname, i.lastname, i.email, i.password
+      FROM input i
+      JOIN claimed c ON c.user_id = i.user_id
+      RETURNING user_id, firstname, lastname, email, created_at, updated_at, deleted_at
+      """;
+
+  private static final String INSERT_USERS_WITH_ROLE_SQL = """
+      WITH new_users AS (
+        INSERT INTO users (firstname, lastname, email, password)
+        SELECT * FROM unnest($1::text[], $2::text[], $3::text[], $4::text[])
+        ON CONFLICT (email) DO NOTHING
+        RETURNING user_id, email
+      ),
+      memberships AS (
+        INSERT INTO user_roles (user_id, role_id)
+        SELECT user_id, $5 FROM new_users
+      )
+      SELECT email FROM new_users
+      """;
+
+  private static final String INSERT_USERS_WITH_ROLE_CLAIMING_EMAILS_SQL = """
+      WITH input AS (
+        SELECT t.*, nextval('users_user_id_seq')::int AS user_id
+        FROM unnest($1::text[], $2::text[], $3::text[], $4::text[]) AS t(firstname, lastname, email, password)
+      ),
+      claimed AS (
+        INSERT INTO user_emails (email, user_id)
+        SELECT email, user_id FROM input
+        ON CONFLICT (email) DO NOTHING
+        RETURNING user_id
+      ),
+      new_users AS (
+        INSERT INTO users (user_id, firstname, lastname, email, password)
+        SELECT i.user_id, i.firstname, i.lastname, i.email, i.password
+        FROM input i
+        JOIN claimed c ON c.user_id = i.user_id
+        RETURNING user_id, email
+      ),
+      memberships AS (
+        INSERT INTO user_roles (user_id, role_id)
+        SELECT user_id, $5 FROM new_users
+      )
+      SELECT email FROM new_users
+      """;
+
+  // Listing projections must stay within the INCLUDE columns of
+  // idx_users_active_created_at / idx_users_trashed_created_at (V5) so
+  // the pages can be index-only scans.
+  private static final String GET_USERS_SQL = """
+      SELECT
+          user_id, firstname, lastname, email, created_at, updated_at, deleted_at,
+          COUNT(*) OVER() AS total_count
+      FROM users
+      WHERE deleted_at IS NULL
+        AND (
+          $1::TEXT IS NULL
+          OR firstname ILIKE '%' || $1 || '%'
+          OR lastname ILIKE '%' || $1 || '%'
+          OR email ILIKE '%' || $1 || '%'
+        )
+      ORDER BY created_at DESC
+      LIMIT $2 OFFSET $3
+      """;
+
+  private static final String GET_USER_BY_ID_SQL = """
+      SELECT
+        u.user_id,
+        u.firstname,
+        u.lastname,
+        u.email,
+        u.created_at,
+        u.updated_at,
+        u.deleted_at
+      FROM users u
+      WHERE u.user_id = $1 AND u.deleted_at IS NULL
+      """;
+
+  private static final String GET_USER_BY_ID_WITH_ROLES_SQL = """
+      SELECT
+        u.user_id, u.firstname, u.lastname, u.email, u.created_at, u.updated_at, u.deleted_at,
+        array_agg(r.role_id ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_ids,
+        array_agg(r.role_name ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_names,
+        array_agg(r.created_at ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_created_ats,
+        array_agg(r.updated_at ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_updated_ats
+      FROM users u
+      LEFT JOIN user_roles ur ON u.user_id = ur.user_id AND ur.deleted_at IS NULL
+      LEFT JOIN roles r ON ur.role_id = r.role_id AND r.deleted_at IS NULL
+      WHERE u.user_id = $1 AND u.deleted_at IS NULL
+      GROUP BY u.user_id
+      """;
+
+  private static final String GET_USER_BY_EMAIL_SQL = """
+      SELECT
+        u.user_id,
+        u.firstname,
+        u.lastname,
+        u.email,
+        u.password,
+        u.created_at,
+        u.updated_at,
+        u.deleted_at
+      FROM users u
+      WHERE u.email = $1 AND u.deleted_at IS NULL
+      """;
+
+  private static final String GET_USER_BY_EMAIL_WITH_ROLES_SQL = """
+      SELECT
+        u.user_id,
+        u.firstname,
+        u.lastname,
+        u.email,
+        u.password,
+        u.created_at,
+        u.updated_at,
+        u.deleted_at,
+        array_agg(r.role_id ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_ids,
+        array_agg(r.role_name ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_names,
+        array_agg(r.created_at ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_created_ats,
+        array_agg(r.updated_at ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_updated_ats
+      FROM users u
+      LEFT JOIN user_roles ur ON u.user_id = ur.user_id AND ur.deleted_at IS NULL
+      LEFT JOIN roles r ON ur.role_id = r.role_id AND r.deleted_at IS NULL
+      WHERE u.email = $1 AND u.deleted_at IS NULL
+      GROUP BY u.user_id
+      """;
+
+  // Hot reads run on every connection by DataSourceRouter.warmUp(), with
+  // cheap arguments, to fill the prepared statement cache.
+  static final Map<String, Tuple> WARMUP_READS = Map.of(
+      GET_USERS_SQL, Tuple.of(null, 0, 0),
+      GET_USER_BY_ID_SQL, Tuple.of(0),
+      GET_USER_BY_ID_WITH_ROLES_SQL, Tuple.of(0),
+      GET_USER_BY_EMAIL_SQL, Tuple.of(""),
+      GET_USER_BY_EMAIL_WITH_ROLES_SQL, Tuple.of(""));
+
+  private final DataSourceRouter db;
+
+  public UserRepository withDeadline(Deadline deadline) {
+    return deadline != null ? new UserRepository(db.withDeadline(deadline)) : this;
+  }
 
   public Future<PagedResult<User>> getUsers(FindAllUsers req) {
     int offset = (req.getPage() > 0 ? req.getPage() - 1 : 0) * req.getPageSize();
 
-    return client
-        .preparedQuery("""
-            SELECT
-                *,
-                COUNT(*) OVER() AS total_count
-            FROM users
-            WHERE deleted_at IS NULL
-              AND (
-                $1::TEXT IS NULL
-                OR firstname ILIKE '%' || $1 || '%'
-                OR lastname ILIKE '%' || $1 || '%'
-                OR email ILIKE '%' || $1 || '%'
-              )
-            ORDER BY created_at DESC
-            LIMIT $2 OFFSET $3
-            """)
+    return db.read("UserRepository.getUsers")
+        .preparedQuery(GET_USERS_SQL)
         .execute(Tuple.of(
             normalizeSearch(req.getSearch()),
             req.getPageSize(),
@@ -50,20 +215,9 @@ public class UserRepository {
       FindAllUsers req) {
     int offset = (req.getPage() > 0 ? req.getPage() - 1 : 0) * req.getPageSize();
 
-    return client
-        .preparedQuery("""
-            SELECT
-                *,
-                COUNT(*) OVER() AS total_count
-            FROM users
-            WHERE deleted_at IS NULL
-              AND ($1::TEXT IS NULL
-                   OR firstname ILIKE '%' || $1 || '%'
-                   OR lastname ILIKE '%' || $1 || '%'
-                   OR email ILIKE '%' || $1 || '%')
-            ORDER BY created_at DESC
-            LIMIT $2 OFFSET $3
-            """)
+    // Same query as getUsers, so it shares the warmed prepared statement.
+    return db.read("UserRepository.getActiveUsers")
+        .preparedQuery(GET_USERS_SQL)
         .execute(Tuple.of(
             normalizeSearch(req.getSearch()),
             req.getPageSize(),
@@ -75,10 +229,10 @@ public class UserRepository {
       FindAllUsers req) {
     int offset = (req.getPage() > 0 ? req.getPage() - 1 : 0) * req.getPageSize();
 
-    return client
+    return db.read("UserRepository.getTrashedUsers")
         .preparedQuery("""
             SELECT
-                *,
+                user_id, firstname, lastname, email, created_at, updated_at, deleted_at,
                 COUNT(*) OVER() AS total_count
             FROM users
             WHERE deleted_at IS NOT NULL
@@ -97,128 +251,200 @@ public class UserRepository {
   }
 
   public Future<List<User>> getAllUsersWithRoles() {
-    return client
-        .query(
+    return db.read("UserRepository.getAllUsersWithRoles")
+        .preparedQuery(
             """
                 SELECT
-                  u.user_id, u.firstname, u.lastname, u.email, u.password, u.created_at, u.updated_at, u.deleted_at,
-                  r.role_id, r.role_name, r.created_at as role_created_at, r.updated_at as role_updated_at, r.deleted_at as role_deleted_at
+                  u.user_id, u.firstname, u.lastname, u.email, u.created_at, u.updated_at, u.deleted_at,
+                  array_agg(r.role_id ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_ids,
+                  array_agg(r.role_name ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_names,
+                  array_agg(r.created_at ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_created_ats,
+                  array_agg(r.updated_at ORDER BY r.role_id) FILTER (WHERE r.role_id IS NOT NULL) AS role_updated_ats
                 FROM users u
                 LEFT JOIN user_roles ur ON u.user_id = ur.user_id AND ur.deleted_at IS NULL
                 LEFT JOIN roles r ON ur.role_id = r.role_id AND r.deleted_at IS NULL
                 WHERE u.deleted_at IS NULL
+                GROUP BY u.user_id
                 ORDER BY u.user_id
                 """)
         .execute()
         .map(User::fromRowsToUsersWithRoles);
   }
 
-  public Future<User> getUserById(Integer userId) {
-    return client
-        .preparedQuery("""
+  /**
+   * Streams every active user with roles through a server-side cursor, fetching
+   * {@code fetchSize} rows at a time. The cursor is paused while {@code sink}
+   * has a full write queue, so memory stays flat regardless of table size.
+   * Completes with the number of users written.
+   */
+  public Future<Long> streamUsersWithRoles(int fetchSize, WriteStream<Buffer> sink,
+      Function<User, Buffer> encoder) {
+    return db.readTransaction("UserRepository.streamUsersWithRoles", conn -> conn
+        .prepare("""
+            SELECT
+              u.user_id, u.firstname, u.lastname, u.email, u.created_at, u.updated_at, u.deleted_at,
+              agg.role_ids, agg.role_names, agg.role_created_ats, agg.role_updated_ats
+            FROM users u
+            LEFT JOIN LATERAL (
               SELECT
-                u.user_id,
-                u.firstname,
-                u.lastname,
-                u.email,
-                u.password,
-                u.created_at,
-                u.updated_at,
-                u.deleted_at
-              FROM users u
-              WHERE u.user_id = $1 AND u.deleted_at IS NULL
+                array_agg(r.role_id ORDER BY r.role_id) AS role_ids,
+                array_agg(r.role_name ORDER BY r.role_id) AS role_names,
+                array_agg(r.created_at ORDER BY r.role_id) AS role_created_ats,
+                array_agg(r.updated_at ORDER BY r.role_id) AS role_updated_ats
+              FROM user_roles ur
+              JOIN roles r ON ur.role_id = r.role_id AND r.deleted_at IS NULL
+              WHERE ur.user_id = u.user_id AND ur.deleted_at IS NULL
+            ) agg ON TRUE
+            WHERE u.deleted_at IS NULL
+            ORDER BY u.user_id
             """)
+        .compose(statement -> {
+          Promise<Long> promise = Promise.promise();
+          RowStream<Row> stream = statement.createStream(fetchSize);
+          AtomicLong written = new AtomicLong();
+          AtomicReference<User.Columns> columns = new AtomicReference<>();
+
+          sink.exceptionHandler(promise::tryFail);
+          stream.exceptionHandler(promise::tryFail);
+          stream.endHandler(v -> promise.tryComplete(written.get()));
+          stream.handler(row -> {
+            if (columns.get() == null) {
+              columns.set(User.Columns.of(row));
+            }
+            sink.write(encoder.apply(User.fromRowWithRoles(row, columns.get())));
+            written.incrementAndGet();
+
+            if (sink.writeQueueFull()) {
+              stream.pause();
+              sink.drainHandler(v -> stream.resume());
+            }
+          });
+
+          return promise.future().eventually(statement::close);
+        }));
+  }
+
+  public Future<User> getUserById(Integer userId) {
+    return db.readForUser(userId, "UserRepository.getUserById")
+        .preparedQuery(GET_USER_BY_ID_SQL)
         .execute(Tuple.of(userId))
         .map(rows -> rows.iterator().hasNext() ? User.fromRow(rows.iterator().next()) : null);
   }
 
   public Future<User> getUserByIdWithRoles(Integer userId) {
-    return client
-        .preparedQuery(
-            """
-                SELECT
-                  u.user_id, u.firstname, u.lastname, u.email, u.password, u.created_at, u.updated_at, u.deleted_at,
-                  r.role_id, r.role_name, r.created_at as role_created_at, r.updated_at as role_updated_at, r.deleted_at as role_deleted_at
-                FROM users u
-                LEFT JOIN user_roles ur ON u.user_id = ur.user_id AND ur.deleted_at IS NULL
-                LEFT JOIN roles r ON ur.role_id = r.role_id AND r.deleted_at IS NULL
-                WHERE u.user_id = $1 AND u.deleted_at IS NULL
-                ORDER BY u.user_id
-                """)
+    return db.readForUser(userId, "UserRepository.getUserByIdWithRoles")
+        .preparedQuery(GET_USER_BY_ID_WITH_ROLES_SQL)
         .execute(Tuple.of(userId))
         .map(User::fromRowsWithRoles);
   }
 
+  // getUserByEmail and getUserByEmailWithRoles are the authentication view:
+  // the only queries that load the password hash.
   public Future<User> getUserByEmail(String email) {
-    return client
-        .preparedQuery("""
-              SELECT
-                u.user_id,
-                u.firstname,
-                u.lastname,
-                u.email,
-                u.password,
-                u.created_at,
-                u.updated_at,
-                u.deleted_at
-              FROM users u
-              WHERE u.email = $1 AND u.deleted_at IS NULL
-            """)
+    return db.readPrimary("UserRepository.getUserByEmail")
+        .preparedQuery(GET_USER_BY_EMAIL_SQL)
         .execute(Tuple.of(email))
         .map(rows -> rows.iterator().hasNext() ? User.fromRow(rows.iterator().next()) : null);
   }
 
   public Future<User> getUserByEmailWithRoles(String email) {
-    return client
-        .preparedQuery("""
-            SELECT
-              u.user_id,
-              u.firstname,
-              u.lastname,
-              u.email,
-              u.password,
-              u.created_at,
-              u.updated_at,
-              u.deleted_at,
-              r.role_id,
-              r.role_name,
-              r.created_at as role_created_at,
-              r.updated_at as role_updated_at,
-              r.deleted_at as role_deleted_at
-            FROM users u
-            LEFT JOIN user_roles ur ON u.user_id = ur.user_id AND ur.deleted_at IS NULL
-            LEFT JOIN roles r ON ur.role_id = r.role_id AND r.deleted_at IS NULL
-            WHERE u.email = $1 AND u.deleted_at IS NULL
-            ORDER BY u.user_id
-            """)
+    return db.readPrimary("UserRepository.getUserByEmailWithRoles")
+        .preparedQuery(GET_USER_BY_EMAIL_WITH_ROLES_SQL)
         .execute(Tuple.of(email))
         .map(User::fromRowsWithRoles);
   }
 
   public Future<User> createUser(CreateUserRequest req) {
-    return client
+    return db.write("UserRepository.createUser")
         .preparedQuery("""
               INSERT INTO users (firstname, lastname, email, password)
               VALUES ($1, $2, $3, $4)
-              RETURNING user_id, firstname, lastname, email, password, created_at, updated_at, deleted_at
+              RETURNING user_id, firstname, lastname, email, created_at, updated_at, deleted_at
             """)
         .execute(Tuple.of(req.getFirstName(), req.getLastName(), req.getEmail(), req.getPassword()))
-        .map(rows -> User.fromRow(rows.iterator().next()));
+        .recover(emailTaken(req.getEmail()))
+        .map(rows -> User.fromRow(rows.iterator().next()))
+        .onSuccess(user -> db.markWritten(user.getUserId()));
+  }
+
+  public Future<User> createUserWithRole(CreateUserRequest req, String roleName) {
+    // One statement: the user is inserted only if the role exists, and the
+    // membership row commits or rolls back with it.
+    return db.write("UserRepository.createUserWithRole")
+        .preparedQuery("""
+            WITH role AS (
+              SELECT role_id, role_name, created_at, updated_at, deleted_at
+              FROM roles
+              WHERE role_name = $5 AND deleted_at IS NULL
+            ),
+            new_user AS (
+              INSERT INTO users (firstname, lastname, email, password)
+              SELECT $1, $2, $3, $4
+              WHERE EXISTS (SELECT 1 FROM role)
+              RETURNING user_id, firstname, lastname, email, created_at, updated_at, deleted_at
+            ),
+            membership AS (
+              INSERT INTO user_roles (user_id, role_id)
+              SELECT u.user_id, r.role_id
+              FROM new_user u
+              CROSS JOIN role r
+              RETURNING user_id, role_id
+            )
+            SELECT
+              u.user_id, u.firstname, u.lastname, u.email, u.created_at, u.updated_at, u.deleted_at,
+              ARRAY[r.role_id] AS role_ids,
+              ARRAY[r.role_name] AS role_names,
+              ARRAY[r.created_at] AS role_created_ats,
+              ARRAY[r.updated_at] AS role_updated_ats
+            FROM new_user u
+            JOIN membership m ON m.user_id = u.user_id
+            JOIN role r ON r.role_id = m.role_id
+            """)
+        .execute(Tuple.of(req.getFirstName(), req.getLastName(), req.getEmail(), req.getPassword(), roleName))
+        .recover(emailTaken(req.getEmail()))
+        .map(User::fromRowsWithRoles)
+        .onSuccess(user -> db.markWritten(user != null ? user.getUserId() : null));
+  }
+
+  public Future<List<User>> insertUsers(List<CreateUserRequest> users) {
+    return db.write("UserRepository.insertUsers")
+        .preparedQuery(USER_EMAILS_TABLE ? INSERT_USERS_CLAIMING_EMAILS_SQL : INSERT_USERS_SQL)
+        .execute(userColumns(users))
+        .map(this::mapUsers)
+        .onSuccess(this::markWritten);
+  }
+
+  public Future<List<String>> insertUsersWithRole(List<CreateUserRequest> users, Integer roleId) {
+    // Emails that already exist are skipped rather than failing the chunk;
+    // only the emails actually inserted come back.
+    return db.write("UserRepository.insertUsersWithRole")
+        .preparedQuery(USER_EMAILS_TABLE
+            ? INSERT_USERS_WITH_ROLE_CLAIMING_EMAILS_SQL
+            : INSERT_USERS_WITH_ROLE_SQL)
+        .execute(userColumns(users).addInteger(roleId))
+        .map(rows -> {
+          List<String> inserted = new ArrayList<>(rows.size());
+          for (Row row : rows) {
+            inserted.add(row.getString("email"));
+          }
+          return inserted;
+        });
   }
 
   public Future<User> updateUser(UpdateUserRequest req) {
-    return client
+    return db.writeForUser(req.getUserId(), "UserRepository.updateUser")
         .preparedQuery("""
               UPDATE users
               SET firstname = $1, lastname = $2, email = $3, updated_at = CURRENT_TIMESTAMP
               WHERE user_id = $4 AND deleted_at IS NULL
             """)
         .execute(Tuple.of(req.getFirstName(), req.getLastName(), req.getEmail(), req.getUserId()))
+        .recover(emailTaken(req.getEmail()))
         .map(this::mapSingleOrNull);
   }
 
   public Future<User> updatePassword(Integer userId, String password) {
-    return client
+    return db.writeForUser(userId, "UserRepository.updatePassword")
         .preparedQuery("""
               UPDATE users
               SET password = $1, updated_at = CURRENT_TIMESTAMP
@@ -229,7 +455,7 @@ public class UserRepository {
   }
 
   public Future<User> restore(Integer userId) {
-    return client
+    return db.writeForUser(userId, "UserRepository.restore")
         .preparedQuery("""
               UPDATE users
               SET deleted_at = null
@@ -240,7 +466,7 @@ public class UserRepository {
   }
 
   public Future<User> trashed(Integer userId) {
-    return client
+    return db.writeForUser(userId, "UserRepository.trashed")
         .preparedQuery("""
               UPDATE users
               SET deleted_at = CURRENT_TIMESTAMP
@@ -251,12 +477,87 @@ public class UserRepository {
   }
 
   public Future<Void> deletePermanent(Integer userId) {
-    return client
+    return db.writeForUser(userId, "UserRepository.deletePermanent")
         .preparedQuery("DELETE FROM users WHERE user_id = $1")
         .execute(Tuple.of(userId))
         .mapEmpty();
   }
 
+  public Future<List<User>> trashedBatch(Integer[] userIds) {
+    return db.write("UserRepository.trashedBatch")
+        .preparedQuery("""
+              UPDATE users
+              SET deleted_at = CURRENT_TIMESTAMP
+              WHERE user_id = ANY($1) AND deleted_at IS NULL
+              RETURNING user_id, firstname, lastname, email, created_at, updated_at, deleted_at
+            """)
+        .execute(Tuple.of(userIds))
+        .map(this::mapUsers)
+        .onSuccess(this::markWritten);
+  }
+
+  public Future<List<User>> restoreBatch(Integer[] userIds) {
+    return db.write("UserRepository.restoreBatch")
+        .preparedQuery("""
+              UPDATE users
+              SET deleted_at = null
+              WHERE user_id = ANY($1) AND deleted_at IS NOT NULL
+              RETURNING user_id, firstname, lastname, email, created_at, updated_at, deleted_at
+            """)
+        .execute(Tuple.of(userIds))
+        .map(this::mapUsers)
+        .onSuccess(this::markWritten);
+  }
+
+  public Future<List<Integer>> deletePermanentBatch(Integer[] userIds) {
+    return db.write("UserRepository.deletePermanentBatch")
+        .preparedQuery("DELETE FROM users WHERE user_id = ANY($1) RETURNING user_id")
+        .execute(Tuple.of(userIds))
+        .map(rows -> {
+          List<Integer> deleted = new ArrayList<>(rows.size());
+          for (Row row : rows) {
+            deleted.add(row.getInteger("user_id"));
+          }
+          return deleted;
+        })
+        .onSuccess(db::markWritten);
+  }
+
+  /**
+   * Maps a unique violation to a 409. The email is the only unique column
+   * users can write, so every path reports a taken email the same way.
+   */
+  private static Function<Throwable, Future<RowSet<Row>>> emailTaken(String email) {
+    return err -> err instanceof PgException pg && UNIQUE_VIOLATION.equals(pg.getSqlState())
+        ? Future.failedFuture(new ConflictException("Email already registered: " + email))
+        : Future.failedFuture(err);
+  }
+
+  private void markWritten(List<User> users) {
+    users.forEach(user -> db.markWritten(user.getUserId()));
+  }
+
+  private Tuple userColumns(List<CreateUserRequest> users) {
+    String[] firstnames = new String[users.size()];
+    String[] lastnames = new String[users.size()];
+    String[] emails = new String[users.size()];
+    String[] passwords = new String[users.size()];
+
+    for (int i = 0; i < users.size(); i++) {
+      CreateUserRequest user = users.get(i);
+      firstnames[i] = user.getFirstName();
+      lastnames[i] = user.getLastName();
+      emails[i] = user.getEmail();
+      passwords[i] = user.getPassword();
+    }
+
+    return Tuple.of(firstnames, lastnames, emails, passwords);
+  }
+
+  private List<User> mapUsers(RowSet<Row> rows) {
+    return User.fromRows(rows);
+  }
+
   private User mapSingleOrNull(RowSet<io.vertx.sqlclient.Row> rows) {
     return rows.iterator().hasNext() ? User.fromRow(rows.iterator().next()) : null;
   }
@@ -269,14 +570,16 @@ public class UserRepository {
   }
 
   private PagedResult<User> mapPagedUsers(RowSet<Row> rows) {
-    List<User> users = new ArrayList<>();
+    List<User> users = new ArrayList<>(rows.size());
     int total = 0;
 
+    User.Columns columns = null;
     for (Row row : rows) {
-      users.add(User.fromRow(row));
-      if (total == 0) {
-        total = row.getInteger("total_count");
+      if (columns == null) {
+        columns = User.Columns.of(row);
+        total = row.getInteger(row.getColumnIndex("total_count"));
       }
+      users.add(User.fromRow(row, columns));
     }
 
     return new PagedResult<>(users, total);
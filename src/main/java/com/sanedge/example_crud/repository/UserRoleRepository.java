@@ -1,22 +1,19 @@
 package com.sanedge.example_crud.repository;
 
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import com.sanedge.example_crud.model.UserRole;
 
 import io.vertx.core.Future;
-import io.vertx.sqlclient.Pool;
 import io.vertx.sqlclient.Tuple;
 import lombok.RequiredArgsConstructor;
 
 @RequiredArgsConstructor
 public class UserRoleRepository {
-  private final Pool client;
+  private final DataSourceRouter db;
 
   public Future<UserRole> assignRoleToUser(UserRole userRole) {
-    return client
+    return db.writeForUser(userRole.getUserId(), "UserRoleRepository.assignRoleToUser")
         .preparedQuery("""
               INSERT INTO user_roles (user_id, role_id)
               VALUES ($1, $2)
@@ -27,7 +24,7 @@ public class UserRoleRepository {
   }
 
   public Future<List<UserRole>> getUserRoles(Integer userId) {
-    return client
+    return db.readForUser(userId, "UserRoleRepository.getUserRoles")
         .preparedQuery("""
               SELECT ur.user_role_id, ur.user_id, ur.role_id, ur.created_at, ur.updated_at, ur.deleted_at
               FROM user_roles ur
@@ -35,13 +32,11 @@ public class UserRoleRepository {
               ORDER BY ur.user_role_id
             """)
         .execute(Tuple.of(userId))
-        .map(rows -> StreamSupport.stream(rows.spliterator(), false)
-            .map(UserRole::fromRow)
-            .collect(Collectors.toList()));
+        .map(UserRole::fromRows);
   }
 
   public Future<List<UserRole>> getRoleUsers(Integer roleId) {
-    return client
+    return db.read("UserRoleRepository.getRoleUsers")
         .preparedQuery("""
               SELECT ur.user_role_id, ur.user_id, ur.role_id, ur.created_at, ur.updated_at, ur.deleted_at
               FROM user_roles ur
@@ -49,13 +44,11 @@ public class UserRoleRepository {
               ORDER BY ur.user_role_id
             """)
         .execute(Tuple.of(roleId))
-        .map(rows -> StreamSupport.stream(rows.spliterator(), false)
-            .map(UserRole::fromRow)
-            .collect(Collectors.toList()));
+        .map(UserRole::fromRows);
   }
 
   public Future<UserRole> getUserRole(UserRole userRole) {
-    return client
+    return db.readForUser(userRole.getUserId(), "UserRoleRepository.getUserRole")
         .preparedQuery("""
               SELECT user_role_id, user_id, role_id, created_at, updated_at, deleted_at
               FROM user_roles
@@ -66,7 +59,7 @@ public class UserRoleRepository {
   }
 
   public Future<Void> removeUserRole(UserRole userRole) {
-    return client
+    return db.writeForUser(userRole.getUserId(), "UserRoleRepository.removeUserRole")
         .preparedQuery("""
               UPDATE user_roles
               SET deleted_at = CURRENT_TIMESTAMP
@@ -77,7 +70,7 @@ public class UserRoleRepository {
   }
 
   public Future<Void> updateUserRole(UserRole userRole) {
-    return client
+    return db.writeForUser(userRole.getUserId(), "UserRoleRepository.updateUserRole")
         .preparedQuery("""
               UPDATE user_roles
               SET user_id = $1, role_id = $2, updated_at = CURRENT_TIMESTAMP
@@ -88,7 +81,7 @@ public class UserRoleRepository {
   }
 
   public Future<Void> hardDeleteUserRole(UserRole userRole) {
-    return client
+    return db.writeForUser(userRole.getUserId(), "UserRoleRepository.hardDeleteUserRole")
         .preparedQuery("""
               DELETE FROM user_roles
               WHERE user_id = $1 AND role_id = $2
@@ -0,0 +1,28 @@
+package com.sanedge.example_crud.routes;
+
+import com.sanedge.example_crud.handler.AdminHandler;
+import com.sanedge.example_crud.middleware.JwtMiddleware;
+import com.sanedge.example_crud.middleware.RoleMiddleware;
+import com.sanedge.example_crud.service.RoleRegistry;
+
+import io.vertx.ext.auth.jwt.JWTAuth;
+import io.vertx.ext.web.Router;
+
+public final class AdminRoutes {
+  private AdminRoutes() {
+  }
+
+  public static void mount(
+      Router router,
+      JWTAuth jwtAuth,
+      AdminHandler adminHandler,
+      RoleRegistry roleRegistry) {
+
+    router.route("/admin*")
+        .handler(JwtMiddleware.jwt(jwtAuth))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"));
+
+    router.get("/admin/slow-queries")
+        .handler(adminHandler::slowQueries);
+  }
+}
@@ -1,7 +1,9 @@
 package com.sanedge.example_crud.routes;
 
 import com.sanedge.example_crud.handler.AuthHandler;
+import com.sanedge.example_crud.middleware.DeadlineMiddleware;
 import com.sanedge.example_crud.middleware.JwtMiddleware;
+import com.sanedge.example_crud.middleware.LoginThrottle;
 
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.Router;
@@ -14,12 +16,15 @@ public final class AuthRoutes {
   public static void mount(
       Router router,
       JWTAuth jwtAuth,
-      AuthHandler authHandler) {
+      AuthHandler authHandler,
+      LoginThrottle loginThrottle) {
     router.post("/register").handler(authHandler::register);
-    router.post("/login").handler(authHandler::login);
+    router.post("/login").handler(loginThrottle).handler(authHandler::login);
     router.post("/refresh-token").handler(authHandler::refreshToken);
 
-    router.get("/me").handler(JwtMiddleware.jwt(jwtAuth)).handler(authHandler::getMe);
+    router.get("/me").handler(JwtMiddleware.jwt(jwtAuth))
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
+        .handler(authHandler::getMe);
     router.get("/logout").handler(JwtMiddleware.jwt(jwtAuth)).handler(authHandler::logout);
   }
 }
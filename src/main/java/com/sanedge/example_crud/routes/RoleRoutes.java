@@ -1,8 +1,10 @@
 package com.sanedge.example_crud.routes;
 
 import com.sanedge.example_crud.handler.RoleHandler;
+import com.sanedge.example_crud.middleware.DeadlineMiddleware;
 import com.sanedge.example_crud.middleware.JwtMiddleware;
 import com.sanedge.example_crud.middleware.RoleMiddleware;
+import com.sanedge.example_crud.service.RoleRegistry;
 
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.Router;
@@ -14,39 +16,64 @@ public final class RoleRoutes {
   public static void mount(
       Router router,
       JWTAuth jwtAuth,
-      RoleHandler roleHandler) {
+      RoleHandler roleHandler,
+      RoleRegistry roleRegistry) {
 
     router.route("/roles*")
         .handler(JwtMiddleware.jwt(jwtAuth));
 
     router.get("/roles")
-        .handler(RoleMiddleware.requireRole("ADMIN"))
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
         .handler(roleHandler::findAll);
 
     router.get("/roles")
-        .handler(RoleMiddleware.requireRole("ADMIN"))
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
         .handler(roleHandler::findActive);
 
     router.get("/roles")
-        .handler(RoleMiddleware.requireRole("ADMIN"))
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
         .handler(roleHandler::findTrashed);
 
+    router.post("/roles/batch/trashed")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.BATCH_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
+        .handler(roleHandler::trashedBatch);
+
+    router.post("/roles/batch/restore")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.BATCH_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
+        .handler(roleHandler::restoreBatch);
+
+    router.post("/roles/batch/deletePermanent")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.BATCH_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
+        .handler(roleHandler::deletePermanentBatch);
+
     router.get("/roles/:id")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(roleHandler::findById);
 
     router.post("/roles")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(roleHandler::create);
 
     router.post("/roles/:id")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(roleHandler::update);
 
     router.post("/roles/restore/:id")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(roleHandler::restore);
 
     router.post("/roles/trashed/:id")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(roleHandler::trashed);
 
     router.delete("/roles/deletePermanent/:id")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(roleHandler::deletePermanent);
   }
 }
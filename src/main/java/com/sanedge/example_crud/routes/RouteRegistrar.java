@@ -1,12 +1,19 @@
 package com.sanedge.example_crud.routes;
 
+import com.sanedge.example_crud.handler.AdminHandler;
 import com.sanedge.example_crud.handler.AuthHandler;
 import com.sanedge.example_crud.handler.RoleHandler;
 import com.sanedge.example_crud.handler.UserHandler;
+import com.sanedge.example_crud.middleware.LoginThrottle;
+import com.sanedge.example_crud.service.RoleRegistry;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
 import io.vertx.ext.web.handler.BodyHandler;
 
 public final class RouteRegistrar {
@@ -18,16 +25,56 @@ public final class RouteRegistrar {
       Vertx vertx,
       JWTAuth jwtAuth,
       AuthHandler authHandler,
-      UserHandler userHandler, RoleHandler roleHandler) {
+      UserHandler userHandler, RoleHandler roleHandler,
+      AdminHandler adminHandler,
+      LoginThrottle loginThrottle,
+      RoleRegistry roleRegistry) {
 
     Router router = Router.router(vertx);
-    router.route().handler(BodyHandler.create());
+    BodyHandler bodyHandler = BodyHandler.create();
+    router.route().handler(ctx -> {
+      if (UserRoutes.IMPORT_PATH.equals(ctx.normalizedPath())) {
+        // The import body is streamed into the importer instead of buffered.
+        ctx.request().pause();
+        dropUnreadBody(ctx);
+        ctx.next();
+      } else {
+        bodyHandler.handle(ctx);
+      }
+    });
 
-    AuthRoutes.mount(router, jwtAuth, authHandler);
-    UserRoutes.mount(router, jwtAuth, userHandler);
+    AuthRoutes.mount(router, jwtAuth, authHandler, loginThrottle);
+    UserRoutes.mount(router, jwtAuth, userHandler, roleRegistry);
     HealthRoutes.mount(router);
-    RoleRoutes.mount(router, jwtAuth, roleHandler);
+    RoleRoutes.mount(router, jwtAuth, roleHandler, roleRegistry);
+    AdminRoutes.mount(router, jwtAuth, adminHandler, roleRegistry);
 
     return router;
   }
+
+  /**
+   * When a response ends before the paused upload was read, e.g. a 401 or 403
+   * from the auth middleware, closes the connection (or resets the HTTP/2
+   * stream) so the unread body cannot stall a keep-alive connection.
+   */
+  private static void dropUnreadBody(RoutingContext ctx) {
+    HttpServerRequest request = ctx.request();
+    boolean http2 = request.version() == HttpVersion.HTTP_2;
+
+    ctx.addHeadersEndHandler(v -> {
+      if (!http2 && !request.isEnded()) {
+        ctx.response().putHeader(HttpHeaders.CONNECTION, "close");
+      }
+    });
+    ctx.addEndHandler(ar -> {
+      if (request.isEnded()) {
+        return;
+      }
+      if (http2) {
+        ctx.response().reset();
+      } else {
+        request.connection().close();
+      }
+    });
+  }
 }
@@ -1,13 +1,16 @@
 package com.sanedge.example_crud.routes;
 
 import com.sanedge.example_crud.handler.UserHandler;
+import com.sanedge.example_crud.middleware.DeadlineMiddleware;
 import com.sanedge.example_crud.middleware.JwtMiddleware;
 import com.sanedge.example_crud.middleware.RoleMiddleware;
+import com.sanedge.example_crud.service.RoleRegistry;
 
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.web.Router;
 
 public final class UserRoutes {
+  public static final String IMPORT_PATH = "/users/import";
 
   private UserRoutes() {
   }
@@ -15,36 +18,68 @@ public final class UserRoutes {
   public static void mount(
       Router router,
       JWTAuth jwtAuth,
-      UserHandler userHandler) {
+      UserHandler userHandler,
+      RoleRegistry roleRegistry) {
 
     router.route("/users*")
         .handler(JwtMiddleware.jwt(jwtAuth));
 
     router.get("/users")
-        .handler(RoleMiddleware.requireRole("ADMIN"))
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
         .handler(userHandler::findAll);
 
     router.get("/users")
-        .handler(RoleMiddleware.requireRole("ADMIN"))
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
         .handler(userHandler::findActive);
 
     router.get("/users")
-        .handler(RoleMiddleware.requireRole("ADMIN"))
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
         .handler(userHandler::findTrashed);
 
+    router.get("/users/export")
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
+        .handler(userHandler::export);
+
+    router.post(IMPORT_PATH)
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
+        .handler(userHandler::importUsers);
+
+    router.post("/users/batch/trashed")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.BATCH_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
+        .handler(userHandler::trashedBatch);
+
+    router.post("/users/batch/restore")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.BATCH_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
+        .handler(userHandler::restoreBatch);
+
+    router.post("/users/batch/deletePermanent")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.BATCH_TIMEOUT_MS))
+        .handler(RoleMiddleware.requireRole(roleRegistry, "ADMIN"))
+        .handler(userHandler::deletePermanentBatch);
+
     router.get("/users/:id")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(userHandler::findById);
 
     router.post("/users/update/:id")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(userHandler::update);
 
     router.post("/users/restore/:id")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(userHandler::restore);
 
     router.post("/users/trashed/:id")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(userHandler::trashed);
 
     router.delete("/users/deletePermanent/:id")
+        .handler(DeadlineMiddleware.deadline(DeadlineMiddleware.DEFAULT_TIMEOUT_MS))
         .handler(userHandler::deletePermanent);
   }
 }
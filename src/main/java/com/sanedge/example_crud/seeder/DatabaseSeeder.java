@@ -1,6 +1,5 @@
 package com.sanedge.example_crud.seeder;
 
-import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.List;
 
@@ -14,13 +13,13 @@ import com.sanedge.example_crud.domain.requests.user.FindAllUsers;
 import com.sanedge.example_crud.model.Role;
 import com.sanedge.example_crud.model.User;
 import com.sanedge.example_crud.model.UserRole;
+import com.sanedge.example_crud.repository.DataSourceRouter;
 import com.sanedge.example_crud.repository.RoleRepository;
 import com.sanedge.example_crud.repository.UserRepository;
 import com.sanedge.example_crud.repository.UserRoleRepository;
+import com.sanedge.example_crud.service.PasswordHasher;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
 import io.vertx.core.Future;
-import io.vertx.sqlclient.Pool;
 
 public class DatabaseSeeder {
   private static final Logger logger = LoggerFactory.getLogger(DatabaseSeeder.class);
@@ -28,11 +27,13 @@ public class DatabaseSeeder {
   private final UserRepository userRepository;
   private final RoleRepository roleRepository;
   private final UserRoleRepository userRoleRepository;
+  private final PasswordHasher passwordHasher;
 
-  public DatabaseSeeder(Pool pool) {
-    this.userRepository = new UserRepository(pool);
-    this.roleRepository = new RoleRepository(pool);
-    this.userRoleRepository = new UserRoleRepository(pool);
+  public DatabaseSeeder(DataSourceRouter db, PasswordHasher passwordHasher) {
+    this.userRepository = new UserRepository(db);
+    this.roleRepository = new RoleRepository(db);
+    this.userRoleRepository = new UserRoleRepository(db);
+    this.passwordHasher = passwordHasher;
   }
 
   public Future<Void> seed() {
@@ -195,8 +196,8 @@ public class DatabaseSeeder {
     UserRole userRole = UserRole.builder()
         .userId(user.getUserId())
         .roleId(role.getRoleId())
-        .createdAt(Timestamp.from(Instant.now()))
-        .updatedAt(Timestamp.from(Instant.now()))
+        .createdAt(Instant.now())
+        .updatedAt(Instant.now())
         .build();
 
     return userRoleRepository.assignRoleToUser(userRole)
@@ -205,22 +206,24 @@ public class DatabaseSeeder {
   }
 
   private String hashPassword(String plainPassword) {
-    return BCrypt.withDefaults().hashToString(12, plainPassword.toCharArray());
+    return passwordHasher.hash(plainPassword);
   }
 
-  public static void runSeeder(
-      Pool pool,
+  public static Future<Void> runSeeder(
+      DataSourceRouter db,
+      PasswordHasher passwordHasher,
       boolean enableSeeder) {
 
     if (!enableSeeder) {
       logger.info("🚫 Database seeder disabled, skipping");
-      return;
+      return Future.succeededFuture();
     }
 
-    DatabaseSeeder seeder = new DatabaseSeeder(pool);
+    DatabaseSeeder seeder = new DatabaseSeeder(db, passwordHasher);
 
-    seeder.seed()
+    return seeder.seed()
         .onSuccess(v -> logger.info("🎉 Database seeder executed successfully"))
-        .onFailure(err -> logger.error("💥 Database seeder failed: {}", err.getMessage(), err));
+        .onFailure(err -> logger.error("💥 Database seeder failed: {}", err.getMessage(), err))
+        .recover(err -> Future.succeededFuture());
   }
 }
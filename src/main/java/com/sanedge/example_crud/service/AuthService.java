@@ -4,12 +4,13 @@ import com.sanedge.example_crud.domain.requests.user.CreateUserRequest;
 import com.sanedge.example_crud.domain.response.TokenResponse;
 import com.sanedge.example_crud.domain.response.api.ApiResponse;
 import com.sanedge.example_crud.domain.response.user.UserResponse;
+import com.sanedge.example_crud.exception.ConflictException;
 import com.sanedge.example_crud.model.Role;
 import com.sanedge.example_crud.model.User;
 import com.sanedge.example_crud.repository.RefreshTokenRepository;
+import com.sanedge.example_crud.repository.UserInsertCoalescer;
 import com.sanedge.example_crud.repository.UserRepository;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.api.OpenTelemetry;
@@ -17,12 +18,13 @@ import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.opentelemetry.api.metrics.LongCounter;
 import io.opentelemetry.api.metrics.Meter;
 import io.vertx.core.Future;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.JWTOptions;
 import io.vertx.ext.auth.jwt.JWTAuth;
 
 import java.time.Duration;
-import java.time.LocalDateTime;
+import java.time.Instant;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -31,25 +33,37 @@ import org.slf4j.LoggerFactory;
 public class AuthService {
   private static final Logger logger = LoggerFactory.getLogger(AuthService.class);
   private final UserRepository repo;
+  private final UserInsertCoalescer userInsertCoalescer;
   private final RefreshTokenRepository refreshTokenRepository;
   private final RedisService redisService;
+  private final SessionCache sessionCache;
+  private final PasswordHasher passwordHasher;
   private final JWTAuth jwtProvider;
+  private final Vertx vertx;
   private final Tracer tracer;
   private final LongCounter requestsTotal;
   private final DoubleHistogram requestDurationSeconds;
 
   public AuthService(
+      Vertx vertx,
       UserRepository repo,
+      UserInsertCoalescer userInsertCoalescer,
       RefreshTokenRepository refreshTokenRepository,
       RedisService redisService,
+      SessionCache sessionCache,
+      PasswordHasher passwordHasher,
       JWTAuth jwtProvider,
       OpenTelemetry openTelemetry) {
     Tracer tracer = openTelemetry.getTracer("auth-service", "1.0.0");
     Meter meter = openTelemetry.getMeter("auth-service");
 
+    this.vertx = vertx;
     this.repo = repo;
+    this.userInsertCoalescer = userInsertCoalescer;
     this.refreshTokenRepository = refreshTokenRepository;
     this.redisService = redisService;
+    this.sessionCache = sessionCache;
+    this.passwordHasher = passwordHasher;
     this.jwtProvider = jwtProvider;
     this.tracer = tracer;
     this.requestsTotal = meter.counterBuilder("requests_total")
@@ -76,11 +90,20 @@ public class AuthService {
             return Future.failedFuture("User not found");
           }
 
-          BCrypt.Result res = BCrypt.verifyer()
-              .verify(password.toCharArray(), user.getPassword());
-
-          if (!res.verified) {
-            return Future.failedFuture("Invalid password");
+          // BCrypt runs off the event loop; verify alone costs BCRYPT_TARGET_MS.
+          return vertx.executeBlocking(() -> passwordHasher.verify(password, user.getPassword()), false)
+              .compose(verified -> verified
+                  ? Future.succeededFuture(user)
+                  : Future.<User>failedFuture("Invalid password"));
+        })
+        .compose(user -> {
+          if (passwordHasher.needsRehash(user.getPassword())) {
+            vertx.executeBlocking(() -> passwordHasher.hash(password), false)
+                .compose(hash -> repo.updatePassword(user.getUserId(), hash))
+                .onSuccess(v -> logger.info("Rehashed password for user {} at cost {}",
+                    user.getUserId(), passwordHasher.getCost()))
+                .onFailure(err -> logger.warn("Failed to rehash password for user {}: {}",
+                    user.getUserId(), err.getMessage()));
           }
 
           JsonObject userCache = new JsonObject()
@@ -94,7 +117,7 @@ public class AuthService {
           String accessToken = generateAccessToken(user);
           String jti = UUID.randomUUID().toString();
           String refreshTokenStr = generateRefreshToken(user.getUserId(), jti);
-          LocalDateTime refreshExpiry = LocalDateTime.now().plusDays(7);
+          Instant refreshExpiry = Instant.now().plus(Duration.ofDays(7));
 
           return refreshTokenRepository.deleteByUserId(user.getUserId())
               .recover(err -> {
@@ -149,11 +172,13 @@ public class AuthService {
     long startTime = System.currentTimeMillis();
     logger.info("Registration attempt for email: {}", user.getEmail());
 
-    String hashed = BCrypt.withDefaults()
-        .hashToString(12, user.getPassword().toCharArray());
-    user.setPassword(hashed);
-
-    return repo.createUser(user)
+    // Hashing off the event loop also lets concurrent registrations reach
+    // the coalescer inside one window.
+    return vertx.executeBlocking(() -> passwordHasher.hash(user.getPassword()), false)
+        .compose(hash -> {
+          user.setPassword(hash);
+          return userInsertCoalescer.createUser(user);
+        })
         .map(createdUser -> {
           UserResponse userResponse = UserResponse.from(createdUser);
 
@@ -170,6 +195,10 @@ public class AuthService {
           span.setAttribute("auth.success", false);
           recordRequestMetrics("register", "failed", startTime);
 
+          if (err instanceof ConflictException) {
+            return Future.failedFuture(err);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<UserResponse>error(
                   "Failed to register user: " + err.getMessage()));
@@ -189,6 +218,7 @@ public class AuthService {
 
     return refreshTokenRepository.deleteByUserId(userId)
         .compose(v -> redisService.delete(sessionCacheKey))
+        .compose(deletedCount -> sessionCache.invalidate(userId).map(deletedCount))
         .map(deletedCount -> {
           logger.info("User {} logged out successfully. {} cache keys deleted.", userId, deletedCount);
           span.setAttribute("auth.success", true);
@@ -226,18 +256,13 @@ public class AuthService {
   }
 
   private String generateAccessToken(User user) {
-    return jwtProvider.generateToken(
-        new JsonObject()
-            .put("sub", "access")
-            .put("userId", user.getUserId())
-            .put("email", user.getEmail())
-            .put(
-                "roleNames",
-                user.getRoles()
-                    .stream()
-                    .map(Role::getRoleName)
-                    .toList()),
-        new JWTOptions().setExpiresInMinutes(60));
+    JsonObject claims = new JsonObject()
+        .put("sub", "access")
+        .put("userId", user.getUserId())
+        .put("email", user.getEmail());
+    RoleRegistry.putClaims(claims, user.getRoles());
+
+    return jwtProvider.generateToken(claims, new JWTOptions().setExpiresInMinutes(60));
   }
 
   private String generateRefreshToken(Integer userId, String jti) {
@@ -261,9 +286,9 @@ public class AuthService {
             return Future.failedFuture("Invalid or expired refresh token");
           }
 
-          LocalDateTime now = LocalDateTime.now();
-          LocalDateTime expiry = refreshToken.getExpiration();
-          boolean needsRenewal = expiry.minusDays(1).isBefore(now);
+          Instant now = Instant.now();
+          Instant expiry = refreshToken.getExpiration();
+          boolean needsRenewal = expiry.minus(Duration.ofDays(1)).isBefore(now);
 
           return repo.getUserByIdWithRoles(refreshToken.getUserId())
               .compose(user -> {
@@ -278,7 +303,7 @@ public class AuthService {
                 if (needsRenewal) {
                   String jti = UUID.randomUUID().toString();
                   finalRefreshTokenStr = generateRefreshToken(user.getUserId(), jti);
-                  LocalDateTime refreshExpiry = LocalDateTime.now().plusDays(7);
+                  Instant refreshExpiry = Instant.now().plus(Duration.ofDays(7));
 
                   renewalFuture = refreshTokenRepository.deleteByUserId(refreshToken.getUserId())
                       .compose(
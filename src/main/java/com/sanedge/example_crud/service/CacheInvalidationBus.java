@@ -0,0 +1,109 @@
+package com.sanedge.example_crud.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.redis.client.Command;
+import io.vertx.redis.client.Redis;
+import io.vertx.redis.client.RedisAPI;
+import io.vertx.redis.client.RedisConnection;
+import io.vertx.redis.client.Request;
+import io.vertx.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+
+public class CacheInvalidationBus {
+  private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+  private static final long RECONNECT_DELAY_MS = 2000;
+
+  private final Vertx vertx;
+  private final Redis subscriber;
+  private final RedisAPI redisAPI;
+  private final Map<String, List<Handler<String>>> handlers = new ConcurrentHashMap<>();
+
+  private RedisConnection connection;
+
+  public CacheInvalidationBus(Vertx vertx, Redis subscriber, RedisAPI redisAPI) {
+    this.vertx = vertx;
+    this.subscriber = subscriber;
+    this.redisAPI = redisAPI;
+  }
+
+  public void start() {
+    subscriber.connect()
+        .onSuccess(conn -> {
+          connection = conn;
+          conn.handler(this::dispatch);
+          conn.exceptionHandler(err -> logger.warn("Cache invalidation subscriber error: {}", err.getMessage()));
+          conn.endHandler(v -> {
+            logger.warn("Cache invalidation subscriber disconnected, reconnecting");
+            connection = null;
+            vertx.setTimer(RECONNECT_DELAY_MS, id -> start());
+          });
+
+          handlers.keySet().forEach(this::sendSubscribe);
+          logger.info("✅ Cache invalidation subscriber connected");
+        })
+        .onFailure(err -> {
+          logger.error("❌ Failed to connect cache invalidation subscriber: {}", err.getMessage());
+          vertx.setTimer(RECONNECT_DELAY_MS, id -> start());
+        });
+  }
+
+  public void subscribe(String channel, Handler<String> handler) {
+    boolean first = !handlers.containsKey(channel);
+    handlers.computeIfAbsent(channel, c -> new CopyOnWriteArrayList<>()).add(handler);
+
+    if (first && connection != null) {
+      sendSubscribe(channel);
+    }
+  }
+
+  public Future<Void> publish(String channel, String message) {
+    return redisAPI.publish(channel, message)
+        .onFailure(err -> logger.warn("Failed to publish to {}: {}", channel, err.getMessage()))
+        .mapEmpty();
+  }
+
+  private void sendSubscribe(String channel) {
+    RedisConnection conn = connection;
+    if (conn == null) {
+      return;
+    }
+
+    conn.send(Request.cmd(Command.SUBSCRIBE).arg(channel))
+        .onFailure(err -> logger.error("Failed to subscribe to {}: {}", channel, err.getMessage()));
+  }
+
+  private void dispatch(Response message) {
+    if (message == null
+        || (message.type() != ResponseType.PUSH && message.type() != ResponseType.MULTI)
+        || message.size() < 3
+        || !"message".equals(message.get(0).toString())) {
+      return;
+    }
+
+    String channel = message.get(1).toString();
+    String payload = message.get(2).toString();
+
+    List<Handler<String>> channelHandlers = handlers.get(channel);
+    if (channelHandlers == null) {
+      return;
+    }
+
+    for (Handler<String> handler : channelHandlers) {
+      try {
+        handler.handle(payload);
+      } catch (Exception e) {
+        logger.warn("Cache invalidation handler for {} failed: {}", channel, e.getMessage());
+      }
+    }
+  }
+}
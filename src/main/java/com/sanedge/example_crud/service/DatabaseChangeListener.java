@@ -0,0 +1,181 @@
+package com.sanedge.example_crud.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sanedge.example_crud.repository.DataSourceRouter;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.vertx.core.Vertx;
+import io.vertx.pgclient.PgConnectOptions;
+import io.vertx.pgclient.pubsub.PgSubscriber;
+
+/**
+ * Evicts cached users and roles changed by any writer, including migrations,
+ * admin SQL and other services, not only this application's own code paths.
+ *
+ * Triggers on {@code users}, {@code roles} and {@code user_roles} send
+ * {@code user:<id>} or {@code role:<id>} on {@link #CHANNEL}. Every node
+ * listens itself, so notifications are collected for
+ * {@code DB_NOTIFY_BATCH_MS} and then evicted from Redis and the node-local
+ * caches in one round trip. Changed users and roles also get a
+ * read-your-writes window in the {@link DataSourceRouter}, so the cache is
+ * not refilled from a replica that has not replayed the change yet.
+ * Notifications sent while the listener is disconnected are lost, so a
+ * reconnect drops the local caches and the cached {@code user:*} and
+ * {@code role:*} keys wholesale.
+ */
+public class DatabaseChangeListener {
+  private static final Logger logger = LoggerFactory.getLogger(DatabaseChangeListener.class);
+  public static final String CHANNEL = "cache_invalidation";
+
+  private static final AttributeKey<String> KIND = AttributeKey.stringKey("kind");
+  private static final long MAX_RECONNECT_DELAY_MS = 30000;
+
+  private final Vertx vertx;
+  private final DataSourceRouter db;
+  private final PgSubscriber subscriber;
+  private final RedisService redisService;
+  private final SessionCache sessionCache;
+  private final RoleDirectory roleDirectory;
+
+  private final long batchMs;
+  private final int maxBatch;
+  private final LongCounter notifications;
+
+  // Only touched on the subscriber's context.
+  private final Set<Integer> pendingUsers = new LinkedHashSet<>();
+  private final Set<Integer> pendingRoles = new LinkedHashSet<>();
+  private long flushTimer = -1;
+  private boolean subscribed;
+
+  public DatabaseChangeListener(
+      Vertx vertx,
+      DataSourceRouter db,
+      PgConnectOptions connectOptions,
+      RedisService redisService,
+      SessionCache sessionCache,
+      RoleDirectory roleDirectory,
+      OpenTelemetry openTelemetry) {
+    Meter meter = openTelemetry.getMeter("database-change-listener");
+
+    this.vertx = vertx;
+    this.db = db;
+    this.redisService = redisService;
+    this.sessionCache = sessionCache;
+    this.roleDirectory = roleDirectory;
+
+    this.batchMs = Long.parseLong(System.getenv().getOrDefault("DB_NOTIFY_BATCH_MS", "100"));
+    this.maxBatch = Integer.parseInt(System.getenv().getOrDefault("DB_NOTIFY_MAX_BATCH", "500"));
+
+    this.notifications = meter.counterBuilder("db_change_notifications_total")
+        .setDescription("Row change notifications received from Postgres, by cached entity")
+        .build();
+
+    this.subscriber = PgSubscriber.subscriber(vertx, connectOptions)
+        .reconnectPolicy(retries -> Math.min(MAX_RECONNECT_DELAY_MS, 500L * (1L << Math.min(retries, 6))));
+  }
+
+  public void start() {
+    subscriber.channel(CHANNEL)
+        .subscribeHandler(v -> onSubscribed())
+        .handler(this::onNotification)
+        .exceptionHandler(err -> logger.warn("Database change listener error: {}", err.getMessage()));
+
+    subscriber.closeHandler(v -> logger.warn("Database change listener disconnected, reconnecting"));
+
+    subscriber.connect()
+        .onFailure(err -> logger.error("❌ Failed to connect database change listener: {}", err.getMessage()));
+  }
+
+  private void onSubscribed() {
+    if (subscribed) {
+      logger.warn("Database change listener resubscribed, dropping local caches");
+      sessionCache.clearLocal();
+      roleDirectory.refresh();
+      for (String pattern : List.of("user:*", "role:*")) {
+        redisService.deleteMatching(pattern)
+            .onSuccess(deleted -> logger.info("Dropped {} cached {} keys after resubscribing", deleted, pattern))
+            .onFailure(err -> logger.warn("Failed to drop cached {} keys after resubscribing: {}", pattern,
+                err.getMessage()));
+      }
+    } else {
+      logger.info("✅ Listening for database changes on {}", CHANNEL);
+    }
+    subscribed = true;
+  }
+
+  private void onNotification(String payload) {
+    int separator = payload.indexOf(':');
+    Integer id;
+    try {
+      id = Integer.valueOf(payload.substring(separator + 1));
+    } catch (NumberFormatException e) {
+      logger.warn("Ignoring malformed database change notification: {}", payload);
+      return;
+    }
+
+    String kind = payload.substring(0, Math.max(0, separator));
+    switch (kind) {
+      case "user" -> pendingUsers.add(id);
+      case "role" -> pendingRoles.add(id);
+      default -> {
+        logger.warn("Ignoring database change notification of unknown kind: {}", payload);
+        return;
+      }
+    }
+    notifications.add(1, Attributes.of(KIND, kind));
+
+    if (pendingUsers.size() + pendingRoles.size() >= maxBatch) {
+      flush();
+    } else if (flushTimer == -1) {
+      flushTimer = vertx.setTimer(batchMs, t -> flush());
+    }
+  }
+
+  private void flush() {
+    if (flushTimer != -1) {
+      vertx.cancelTimer(flushTimer);
+      flushTimer = -1;
+    }
+    if (pendingUsers.isEmpty() && pendingRoles.isEmpty()) {
+      return;
+    }
+
+    List<Integer> userIds = new ArrayList<>(pendingUsers);
+    List<Integer> roleIds = new ArrayList<>(pendingRoles);
+    pendingUsers.clear();
+    pendingRoles.clear();
+
+    List<String> cacheKeys = new ArrayList<>(userIds.size() + roleIds.size());
+    userIds.forEach(id -> cacheKeys.add("user:" + id));
+    roleIds.forEach(id -> cacheKeys.add("role:" + id));
+
+    db.markWritten(userIds);
+    if (!roleIds.isEmpty()) {
+      db.markRolesWritten();
+    }
+
+    // Every node receives the same notifications, so local caches are
+    // evicted directly rather than re-broadcast over the Redis bus.
+    userIds.forEach(sessionCache::evictLocal);
+    if (!roleIds.isEmpty()) {
+      roleDirectory.refresh();
+    }
+
+    redisService.delete(cacheKeys)
+        .onSuccess(deleted -> logger.debug("Evicted {} of {} cache keys changed in the database", deleted,
+            cacheKeys.size()))
+        .onFailure(err -> logger.warn("Failed to evict {} cache keys changed in the database: {}",
+            cacheKeys.size(), err.getMessage()));
+  }
+}
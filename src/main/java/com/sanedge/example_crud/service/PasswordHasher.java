@@ -0,0 +1,98 @@
+package com.sanedge.example_crud.service;
+
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import at.favre.lib.crypto.bcrypt.BCrypt;
+
+public class PasswordHasher {
+  private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+  private static final String CALIBRATION_PASSWORD = "calibration-password";
+  private static final int CALIBRATION_RUNS = 3;
+
+  private final int cost;
+
+  public PasswordHasher(int cost) {
+    this.cost = cost;
+  }
+
+  /**
+   * Picks the highest BCrypt cost whose hash time stays within
+   * {@code BCRYPT_TARGET_MS} on this machine, never below
+   * {@code BCRYPT_MIN_COST}. Setting {@code BCRYPT_COST} skips calibration and
+   * pins the cost, e.g. to keep a heterogeneous fleet on one value.
+   */
+  public static PasswordHasher calibrate() {
+    int minCost = Integer.parseInt(System.getenv().getOrDefault("BCRYPT_MIN_COST", "10"));
+    int maxCost = Integer.parseInt(System.getenv().getOrDefault("BCRYPT_MAX_COST", "14"));
+    long targetMs = Long.parseLong(System.getenv().getOrDefault("BCRYPT_TARGET_MS", "250"));
+    String pinned = System.getenv("BCRYPT_COST");
+
+    if (pinned != null && !pinned.isBlank()) {
+      int cost = Math.max(minCost, Integer.parseInt(pinned));
+      logger.info("🔐 BCrypt cost pinned to {}", cost);
+      return new PasswordHasher(cost);
+    }
+
+    hashOnce(minCost);
+
+    long[] samples = new long[CALIBRATION_RUNS];
+    for (int i = 0; i < CALIBRATION_RUNS; i++) {
+      samples[i] = hashOnce(minCost);
+    }
+    Arrays.sort(samples);
+    double baseMs = Math.max(samples[CALIBRATION_RUNS / 2] / 1_000_000.0, 0.1);
+
+    // Each extra cost step doubles the work.
+    int extraSteps = (int) Math.floor(Math.log(targetMs / baseMs) / Math.log(2));
+    int cost = Math.max(minCost, Math.min(maxCost, minCost + extraSteps));
+
+    logger.info("🔐 BCrypt calibrated: cost {} took {} ms, selected cost {} for a {} ms target",
+        minCost, Math.round(baseMs), cost, targetMs);
+
+    return new PasswordHasher(cost);
+  }
+
+  public String hash(String plainPassword) {
+    return BCrypt.withDefaults().hashToString(cost, plainPassword.toCharArray());
+  }
+
+  public boolean verify(String plainPassword, String hash) {
+    return BCrypt.verifyer().verify(plainPassword.toCharArray(), hash).verified;
+  }
+
+  /**
+   * True only for hashes weaker than this node's cost. Nodes calibrate
+   * independently, so a stronger hash from a faster node is left alone rather
+   * than rewritten (and weakened) on every login that lands here.
+   */
+  public boolean needsRehash(String hash) {
+    int storedCost = costOf(hash);
+    return storedCost != -1 && storedCost < cost;
+  }
+
+  public int getCost() {
+    return cost;
+  }
+
+  static int costOf(String hash) {
+    // Modular crypt format: $2a$12$<salt+hash>
+    if (hash == null || hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(6) != '$') {
+      return -1;
+    }
+
+    try {
+      return Integer.parseInt(hash.substring(4, 6));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private static long hashOnce(int cost) {
+    long start = System.nanoTime();
+    BCrypt.withDefaults().hashToString(cost, CALIBRATION_PASSWORD.toCharArray());
+    return System.nanoTime() - start;
+  }
+}
@@ -13,6 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -99,6 +100,21 @@ public class RedisService {
         .onComplete(ar -> span.end());
   }
 
+  public Future<Boolean> setIfAbsent(String key, String value, Duration ttl) {
+    Span span = tracer.spanBuilder("redis.setnx")
+        .setAttribute("redis.key", key)
+        .setAttribute("redis.ttl_millis", ttl.toMillis())
+        .startSpan();
+
+    return redisAPI.set(Arrays.asList(key, value, "NX", "PX", String.valueOf(ttl.toMillis())))
+        .onFailure(err -> {
+          logger.error("Redis SET NX error for key {}: {}", key, err.getMessage());
+          span.recordException(err);
+        })
+        .map(response -> response != null && "OK".equals(response.toString()))
+        .onComplete(ar -> span.end());
+  }
+
   public Future<Long> delete(String key) {
     Span span = tracer.spanBuilder("redis.delete")
         .setAttribute("redis.key", key)
@@ -116,6 +132,114 @@ public class RedisService {
         .onComplete(ar -> span.end());
   }
 
+  public Future<Long> delete(List<String> keys) {
+    if (keys.isEmpty()) {
+      return Future.succeededFuture(0L);
+    }
+
+    Span span = tracer.spanBuilder("redis.delete")
+        .setAttribute("redis.key_count", keys.size())
+        .startSpan();
+
+    return redisAPI.del(keys)
+        .onSuccess(response -> {
+          logger.debug("Deleted {} keys", keys.size());
+        })
+        .onFailure(err -> {
+          logger.error("Redis DELETE error for {} keys: {}", keys.size(), err.getMessage());
+          span.recordException(err);
+        })
+        .map(response -> response.toLong())
+        .onComplete(ar -> span.end());
+  }
+
+  /**
+   * Deletes every key matching {@code pattern}, walking the keyspace with SCAN
+   * so Redis is never blocked the way KEYS would block it.
+   */
+  public Future<Long> deleteMatching(String pattern) {
+    Span span = tracer.spanBuilder("redis.delete_matching")
+        .setAttribute("redis.pattern", pattern)
+        .startSpan();
+
+    return scanAndDelete(pattern, "0", 0L)
+        .onSuccess(deleted -> logger.debug("Deleted {} keys matching {}", deleted, pattern))
+        .onFailure(err -> {
+          logger.error("Redis SCAN/DELETE error for pattern {}: {}", pattern, err.getMessage());
+          span.recordException(err);
+        })
+        .onComplete(ar -> span.end());
+  }
+
+  private Future<Long> scanAndDelete(String pattern, String cursor, long deleted) {
+    return redisAPI.scan(List.of(cursor, "MATCH", pattern, "COUNT", "500"))
+        .compose(response -> {
+          String next = response.get(0).toString();
+          List<String> keys = new ArrayList<>();
+          response.get(1).forEach(key -> keys.add(key.toString()));
+
+          return delete(keys).compose(count -> "0".equals(next)
+              ? Future.succeededFuture(deleted + count)
+              : scanAndDelete(pattern, next, deleted + count));
+        });
+  }
+
+  public Future<Void> addToSet(String key, String member, Duration ttl) {
+    Span span = tracer.spanBuilder("redis.sadd")
+        .setAttribute("redis.key", key)
+        .setAttribute("redis.ttl_millis", ttl.toMillis())
+        .startSpan();
+
+    return redisAPI.sadd(List.of(key, member))
+        .compose(response -> redisAPI.pexpire(List.of(key, String.valueOf(ttl.toMillis()))))
+        .onFailure(err -> {
+          logger.error("Redis SADD error for key {}: {}", key, err.getMessage());
+          span.recordException(err);
+        })
+        .<Void>mapEmpty()
+        .onComplete(ar -> span.end());
+  }
+
+  public Future<List<String>> members(String key) {
+    Span span = tracer.spanBuilder("redis.smembers")
+        .setAttribute("redis.key", key)
+        .startSpan();
+
+    return redisAPI.smembers(key)
+        .onFailure(err -> {
+          logger.error("Redis SMEMBERS error for key {}: {}", key, err.getMessage());
+          span.recordException(err);
+        })
+        .map(response -> {
+          List<String> members = new ArrayList<>();
+          if (response != null) {
+            response.forEach(member -> members.add(member.toString()));
+          }
+          return members;
+        })
+        .onComplete(ar -> span.end());
+  }
+
+  public Future<Long> increment(String key, Duration ttl) {
+    Span span = tracer.spanBuilder("redis.incr")
+        .setAttribute("redis.key", key)
+        .setAttribute("redis.ttl_millis", ttl.toMillis())
+        .startSpan();
+
+    return redisAPI.incr(key)
+        .compose(count -> {
+          if (count.toLong() == 1L) {
+            return redisAPI.pexpire(List.of(key, String.valueOf(ttl.toMillis()))).map(count.toLong());
+          }
+          return Future.succeededFuture(count.toLong());
+        })
+        .onFailure(err -> {
+          logger.error("Redis INCR error for key {}: {}", key, err.getMessage());
+          span.recordException(err);
+        })
+        .onComplete(ar -> span.end());
+  }
+
   public Future<Boolean> exists(String key) {
     Span span = tracer.spanBuilder("redis.exists")
         .setAttribute("redis.key", key)
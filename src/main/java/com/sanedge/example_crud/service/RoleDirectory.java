@@ -0,0 +1,113 @@
+package com.sanedge.example_crud.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sanedge.example_crud.domain.requests.role.FindAllRoles;
+import com.sanedge.example_crud.domain.response.api.PagedResult;
+import com.sanedge.example_crud.model.Role;
+import com.sanedge.example_crud.repository.RoleRepository;
+
+import io.vertx.core.Future;
+
+/**
+ * In-memory snapshot of the active roles. The roles table holds a handful of
+ * rows, so lookups by id or name and the active listing are served from an
+ * immutable snapshot that is swapped wholesale on refresh. Writes on any node
+ * publish on {@link #REFRESH_CHANNEL} so every node reloads.
+ */
+public class RoleDirectory {
+  private static final Logger logger = LoggerFactory.getLogger(RoleDirectory.class);
+  public static final String REFRESH_CHANNEL = "roles:refresh";
+
+  private final RoleRepository roleRepository;
+  private final RoleRegistry roleRegistry;
+  private final CacheInvalidationBus bus;
+
+  private volatile Snapshot snapshot;
+
+  private record Snapshot(Map<Integer, Role> byId, Map<String, Role> byName, List<Role> active) {
+  }
+
+  public RoleDirectory(RoleRepository roleRepository, RoleRegistry roleRegistry, CacheInvalidationBus bus) {
+    this.roleRepository = roleRepository;
+    this.roleRegistry = roleRegistry;
+    this.bus = bus;
+
+    bus.subscribe(REFRESH_CHANNEL, message -> refresh());
+  }
+
+  public Future<Void> refresh() {
+    return roleRepository.getAllActiveRoles()
+        .onSuccess(this::load)
+        .onFailure(err -> logger.warn("Failed to refresh role directory: {}", err.getMessage()))
+        .mapEmpty();
+  }
+
+  public Future<Void> invalidate() {
+    return refresh()
+        .compose(v -> bus.publish(REFRESH_CHANNEL, "refresh"))
+        .recover(err -> Future.succeededFuture());
+  }
+
+  public boolean isLoaded() {
+    return snapshot != null;
+  }
+
+  public Role getRoleById(Integer roleId) {
+    Snapshot current = snapshot;
+    return current != null ? current.byId().get(roleId) : null;
+  }
+
+  public Future<Role> getRoleByName(String roleName) {
+    Snapshot current = snapshot;
+    Role role = current != null ? current.byName().get(roleName) : null;
+    if (role != null) {
+      return Future.succeededFuture(role);
+    }
+    // Not loaded yet, or created on another node ahead of its refresh message.
+    return roleRepository.getRoleByName(roleName);
+  }
+
+  public PagedResult<Role> getActiveRoles(FindAllRoles req) {
+    Snapshot current = snapshot;
+    String search = req.getSearch() == null || req.getSearch().isBlank()
+        ? null
+        : req.getSearch().toLowerCase(Locale.ROOT);
+
+    List<Role> matching = search == null
+        ? current.active()
+        : current.active().stream()
+            .filter(role -> role.getRoleName().toLowerCase(Locale.ROOT).contains(search))
+            .toList();
+
+    int offset = (req.getPage() > 0 ? req.getPage() - 1 : 0) * req.getPageSize();
+    int from = Math.min(offset, matching.size());
+    int to = Math.min(from + req.getPageSize(), matching.size());
+
+    return new PagedResult<>(matching.subList(from, to), matching.size());
+  }
+
+  private void load(List<Role> roles) {
+    Map<Integer, Role> byId = new HashMap<>();
+    Map<String, Role> byName = new HashMap<>();
+    for (Role role : roles) {
+      byId.put(role.getRoleId(), role);
+      byName.put(role.getRoleName(), role);
+    }
+
+    List<Role> active = roles.stream()
+        .sorted(Comparator.comparing(Role::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder())))
+        .toList();
+
+    snapshot = new Snapshot(Map.copyOf(byId), Map.copyOf(byName), active);
+    roleRegistry.load(roles);
+    logger.debug("Role directory loaded {} roles", roles.size());
+  }
+}
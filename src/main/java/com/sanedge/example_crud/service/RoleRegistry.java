@@ -0,0 +1,137 @@
+package com.sanedge.example_crud.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sanedge.example_crud.model.Role;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Maps role names to bit positions for the {@code roleMask} access token
+ * claim. A role's bit is its {@code role_id}, so every node agrees on the
+ * encoding without coordination; roles with an id of 64 or more do not fit
+ * in the mask and travel by name in {@code roleNames} instead. Tokens
+ * without a {@code roleMask} predate it and are checked by name alone. Loaded by
+ * {@link RoleDirectory} whenever its snapshot changes.
+ */
+public class RoleRegistry {
+  private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+  public static final String MASK_CLAIM = "roleMask";
+  public static final String OVERFLOW_CLAIM = "roleNames";
+  private static final int MAX_BIT = Long.SIZE - 1;
+
+  private volatile Map<String, Integer> idsByName = Map.of();
+
+  public void load(Collection<Role> roles) {
+    Map<String, Integer> next = new HashMap<>();
+    for (Role role : roles) {
+      next.put(role.getRoleName(), role.getRoleId());
+    }
+    idsByName = Map.copyOf(next);
+    logger.debug("Role registry loaded {} roles", next.size());
+  }
+
+  public RequiredRoles require(String... roleNames) {
+    return new RequiredRoles(List.of(roleNames));
+  }
+
+  public static void putClaims(JsonObject claims, Collection<Role> roles) {
+    long mask = 0L;
+    List<String> overflow = new ArrayList<>();
+
+    for (Role role : roles) {
+      if (fitsMask(role.getRoleId())) {
+        mask |= 1L << role.getRoleId();
+      } else {
+        overflow.add(role.getRoleName());
+      }
+    }
+
+    claims.put(MASK_CLAIM, mask);
+    if (!overflow.isEmpty()) {
+      claims.put(OVERFLOW_CLAIM, overflow);
+    }
+  }
+
+  private static boolean fitsMask(Integer roleId) {
+    return roleId != null && roleId >= 0 && roleId <= MAX_BIT;
+  }
+
+  /**
+   * A precompiled role requirement. The mask is rebuilt only when the
+   * registry snapshot changes, so the per-request check is a single AND.
+   */
+  public final class RequiredRoles {
+    private final List<String> roleNames;
+    private volatile Compiled compiled;
+
+    private record Compiled(Map<String, Integer> source, long mask, List<String> overflow) {
+    }
+
+    private RequiredRoles(List<String> roleNames) {
+      this.roleNames = roleNames;
+    }
+
+    public boolean isSatisfiedBy(JsonObject principal) {
+      // Tokens issued before roleMask existed carry every role by name.
+      if (!principal.containsKey(MASK_CLAIM)) {
+        return grantedByName(principal, roleNames);
+      }
+
+      Compiled current = compiled();
+
+      if ((principal.getLong(MASK_CLAIM, 0L) & current.mask()) != 0) {
+        return true;
+      }
+
+      return !current.overflow().isEmpty() && grantedByName(principal, current.overflow());
+    }
+
+    private boolean grantedByName(JsonObject principal, List<String> names) {
+      JsonArray granted = principal.getJsonArray(OVERFLOW_CLAIM);
+      if (granted == null) {
+        return false;
+      }
+
+      for (String name : names) {
+        if (granted.contains(name)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private Compiled compiled() {
+      Map<String, Integer> snapshot = idsByName;
+      Compiled current = compiled;
+
+      if (current != null && current.source() == snapshot) {
+        return current;
+      }
+
+      long mask = 0L;
+      List<String> overflow = new ArrayList<>();
+      for (String name : roleNames) {
+        Integer roleId = snapshot.get(name);
+        if (fitsMask(roleId)) {
+          mask |= 1L << roleId;
+        } else {
+          overflow.add(name);
+        }
+      }
+
+      current = new Compiled(snapshot, mask, List.copyOf(overflow));
+      compiled = current;
+      return current;
+    }
+  }
+}
@@ -3,6 +3,8 @@ package com.sanedge.example_crud.service;
 import java.time.Duration;
 import java.util.List;
 
+import com.sanedge.example_crud.domain.requests.BatchIdsRequest;
+import com.sanedge.example_crud.domain.requests.Deadline;
 import com.sanedge.example_crud.domain.requests.role.CreateRoleRequest;
 import com.sanedge.example_crud.domain.requests.role.FindAllRoles;
 import com.sanedge.example_crud.domain.requests.role.UpdateRoleRequest;
@@ -12,6 +14,7 @@ import com.sanedge.example_crud.domain.response.api.PagedResult;
 import com.sanedge.example_crud.domain.response.api.PaginationMeta;
 import com.sanedge.example_crud.domain.response.role.RoleResponse;
 import com.sanedge.example_crud.domain.response.role.RoleResponseDeleteAt;
+import com.sanedge.example_crud.exception.DeadlineExceededException;
 import com.sanedge.example_crud.exception.NotFoundException;
 import com.sanedge.example_crud.model.Role;
 import com.sanedge.example_crud.repository.RoleRepository;
@@ -32,6 +35,7 @@ public class RoleService {
   private static final Logger logger = LoggerFactory.getLogger(RoleService.class);
   private final RoleRepository repo;
   private final RedisService redisService;
+  private final RoleDirectory roleDirectory;
   private final Tracer tracer;
   private final LongCounter requestsTotal;
   private final DoubleHistogram requestDurationSeconds;
@@ -39,12 +43,14 @@ public class RoleService {
   public RoleService(
       RoleRepository repo,
       RedisService redisService,
+      RoleDirectory roleDirectory,
       OpenTelemetry openTelemetry) {
     Tracer tracer = openTelemetry.getTracer("role-service", "1.0.0");
     Meter meter = openTelemetry.getMeter("role-service");
 
     this.repo = repo;
     this.redisService = redisService;
+    this.roleDirectory = roleDirectory;
     this.tracer = tracer;
     this.requestsTotal = meter.counterBuilder("requests_total")
         .setDescription("Total number of requests")
@@ -56,7 +62,7 @@ public class RoleService {
   }
 
   public Future<ApiResponsePagination<List<RoleResponse>>> getAllRoles(
-      FindAllRoles req) {
+      FindAllRoles req, Deadline deadline) {
 
     Span span = tracer.spanBuilder("RoleService.getAllRoles").startSpan();
     long startTime = System.currentTimeMillis();
@@ -75,7 +81,7 @@ public class RoleService {
     req.setPageSize(pageSize);
     req.setSearch(keyword);
 
-    return repo.getRoles(req)
+    return repo.withDeadline(deadline).getRoles(req)
         .map(result -> mapRolePagination(startTime, span, result, req, keyword))
         .onFailure(throwable -> {
           logger.error("Failed to fetch roles", throwable);
@@ -89,7 +95,7 @@ public class RoleService {
   }
 
   public Future<ApiResponsePagination<List<RoleResponseDeleteAt>>> getActiveRoles(
-      FindAllRoles req) {
+      FindAllRoles req, Deadline deadline) {
 
     Span span = tracer.spanBuilder("RoleService.getActiveRoles").startSpan();
     long startTime = System.currentTimeMillis();
@@ -104,7 +110,11 @@ public class RoleService {
         "Fetching roles | search={}, page={}, pageSize={}",
         req.getSearch(), page, pageSize);
 
-    return repo.getActiveRoles(req)
+    Future<PagedResult<Role>> roles = roleDirectory.isLoaded()
+        ? Future.succeededFuture(roleDirectory.getActiveRoles(req))
+        : repo.withDeadline(deadline).getActiveRoles(req);
+
+    return roles
         .map(result -> mapRolePaginationDeleteAt("get_active", startTime, span, result, req, keyword))
         .onFailure(throwable -> {
           logger.error("Failed to fetch roles", throwable);
@@ -118,7 +128,7 @@ public class RoleService {
   }
 
   public Future<ApiResponsePagination<List<RoleResponseDeleteAt>>> getTrashedRoles(
-      FindAllRoles req) {
+      FindAllRoles req, Deadline deadline) {
     Span span = tracer.spanBuilder("RoleService.getTrashedRoles").startSpan();
     long startTime = System.currentTimeMillis();
 
@@ -132,7 +142,7 @@ public class RoleService {
         "Fetching roles | search={}, page={}, pageSize={}",
         req.getSearch(), page, pageSize);
 
-    return repo.getTrashedRoles(req)
+    return repo.withDeadline(deadline).getTrashedRoles(req)
         .map(result -> mapRolePaginationDeleteAt("get_trashed", startTime, span, result, req, keyword))
         .onFailure(throwable -> {
           logger.error("Failed to fetch roles", throwable);
@@ -145,7 +155,7 @@ public class RoleService {
         });
   }
 
-  public Future<ApiResponse<RoleResponse>> getRoleById(Integer roleId) {
+  public Future<ApiResponse<RoleResponse>> getRoleById(Integer roleId, Deadline deadline) {
     Span span = tracer.spanBuilder("RoleService.getRoleById")
         .setAttribute("role.id", roleId)
         .startSpan();
@@ -153,6 +163,18 @@ public class RoleService {
     long startTime = System.currentTimeMillis();
     logger.info("Fetching role by id: {}", roleId);
 
+    Role known = roleDirectory.getRoleById(roleId);
+    if (known != null) {
+      span.setAttribute("role.cache_hit", true);
+      span.setAttribute("role.source", "directory");
+      recordRequestMetrics("get_by_id", "success", startTime);
+      span.end();
+
+      return Future.succeededFuture(ApiResponse.success(
+          "Role fetched successfully",
+          RoleResponse.from(known)));
+    }
+
     String cacheKey = "role:" + roleId;
 
     return redisService.get(cacheKey)
@@ -170,10 +192,10 @@ public class RoleService {
                   RoleResponse.from(role)));
             } catch (Exception e) {
               logger.warn("Failed to parse cached role data for role {}: {}", roleId, e.getMessage());
-              return fetchRoleFromDatabase(roleId, span, startTime);
+              return fetchRoleFromDatabase(roleId, span, startTime, deadline);
             }
           } else {
-            return fetchRoleFromDatabase(roleId, span, startTime);
+            return fetchRoleFromDatabase(roleId, span, startTime, deadline);
           }
         })
         .recover(err -> {
@@ -183,16 +205,21 @@ public class RoleService {
           recordRequestMetrics("get_by_id", "failed", startTime);
           span.end();
 
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<RoleResponse>error(
                   "Failed to fetch role: " + err.getMessage()));
         });
   }
 
-  private Future<ApiResponse<RoleResponse>> fetchRoleFromDatabase(Integer roleId, Span span, long startTime) {
+  private Future<ApiResponse<RoleResponse>> fetchRoleFromDatabase(Integer roleId, Span span, long startTime,
+      Deadline deadline) {
     span.setAttribute("role.cache_hit", false);
 
-    return repo.getRoleById(roleId)
+    return repo.withDeadline(deadline).getRoleById(roleId)
         .compose((Role role) -> {
           if (role == null) {
             span.setAttribute("role.success", false);
@@ -220,7 +247,7 @@ public class RoleService {
         });
   }
 
-  public Future<ApiResponse<RoleResponse>> createRole(CreateRoleRequest req) {
+  public Future<ApiResponse<RoleResponse>> createRole(CreateRoleRequest req, Deadline deadline) {
     Span span = tracer.spanBuilder("RoleService.createRole")
         .setAttribute("role.name", req.getName())
         .startSpan();
@@ -228,7 +255,8 @@ public class RoleService {
     long startTime = System.currentTimeMillis();
     logger.info("Creating role: {}", req.getName());
 
-    return repo.createRole(req)
+    return repo.withDeadline(deadline).createRole(req)
+        .compose(role -> roleDirectory.invalidate().map(role))
         .map(created -> {
           span.setAttribute("role.success", true);
           span.setAttribute("role.id", created.getRoleId());
@@ -246,13 +274,17 @@ public class RoleService {
           recordRequestMetrics("create", "failed", startTime);
           span.end();
 
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<RoleResponse>error(
                   "Failed to create role: " + err.getMessage()));
         });
   }
 
-  public Future<ApiResponse<RoleResponse>> updateRole(UpdateRoleRequest req) {
+  public Future<ApiResponse<RoleResponse>> updateRole(UpdateRoleRequest req, Deadline deadline) {
     Integer roleId = req.getRoleId();
 
     Span span = tracer.spanBuilder("RoleService.updateRole")
@@ -263,7 +295,8 @@ public class RoleService {
     long startTime = System.currentTimeMillis();
     logger.info("Updating role: {}, name: {}", roleId, req.getName());
 
-    return repo.updateRole(req)
+    return repo.withDeadline(deadline).updateRole(req)
+        .compose(role -> roleDirectory.invalidate().map(role))
         .compose((Role dota) -> {
           String cacheKey = "role:" + roleId;
           return redisService.delete(cacheKey)
@@ -293,13 +326,17 @@ public class RoleService {
           recordRequestMetrics("update", "failed", startTime);
           span.end();
 
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<RoleResponse>error(
                   "Failed to update role: " + err.getMessage()));
         });
   }
 
-  public Future<ApiResponse<RoleResponseDeleteAt>> trashed(Integer roleId) {
+  public Future<ApiResponse<RoleResponseDeleteAt>> trashed(Integer roleId, Deadline deadline) {
     Span span = tracer.spanBuilder("RoleService.trashed")
         .setAttribute("role.id", roleId)
         .startSpan();
@@ -307,7 +344,8 @@ public class RoleService {
     long startTime = System.currentTimeMillis();
     logger.info("Trashed role: {}", roleId);
 
-    return repo.trashed(roleId)
+    return repo.withDeadline(deadline).trashed(roleId)
+        .compose(role -> roleDirectory.invalidate().map(role))
         .compose(role -> {
           if (role == null) {
             span.setAttribute("role.success", false);
@@ -344,13 +382,17 @@ public class RoleService {
           recordRequestMetrics("trashed", "failed", startTime);
           span.end();
 
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<RoleResponseDeleteAt>error(
                   "Failed to trashed role: " + err.getMessage()));
         });
   }
 
-  public Future<ApiResponse<RoleResponseDeleteAt>> restore(Integer roleId) {
+  public Future<ApiResponse<RoleResponseDeleteAt>> restore(Integer roleId, Deadline deadline) {
     Span span = tracer.spanBuilder("RoleService.restore")
         .setAttribute("role.id", roleId)
         .startSpan();
@@ -358,7 +400,8 @@ public class RoleService {
     long startTime = System.currentTimeMillis();
     logger.info("Restore role: {}", roleId);
 
-    return repo.restore(roleId)
+    return repo.withDeadline(deadline).restore(roleId)
+        .compose(role -> roleDirectory.invalidate().map(role))
         .compose(role -> {
           String cacheKey = "role:" + roleId;
           return redisService.delete(cacheKey)
@@ -398,13 +441,17 @@ public class RoleService {
           recordRequestMetrics("restore", "failed", startTime);
           span.end();
 
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<RoleResponseDeleteAt>error(
                   "Failed to restore role: " + err.getMessage()));
         });
   }
 
-  public Future<ApiResponse<Void>> deletePermanent(Integer roleId) {
+  public Future<ApiResponse<Void>> deletePermanent(Integer roleId, Deadline deadline) {
     Span span = tracer.spanBuilder("RoleService.deletePermanent")
         .setAttribute("role.id", roleId)
         .startSpan();
@@ -412,7 +459,8 @@ public class RoleService {
     long startTime = System.currentTimeMillis();
     logger.info("delete Permanent role: {}", roleId);
 
-    return repo.deletePermanent(roleId)
+    return repo.withDeadline(deadline).deletePermanent(roleId)
+        .compose(v -> roleDirectory.invalidate().map(v))
         .compose(v -> {
           String cacheKey = "role:" + roleId;
           return redisService.delete(cacheKey)
@@ -439,11 +487,135 @@ public class RoleService {
           recordRequestMetrics("deletePermanent", "failed", startTime);
           span.end();
 
+          if (throwable instanceof DeadlineExceededException) {
+            return Future.failedFuture(throwable);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<Void>error("Failed to delete role: " + throwable.getMessage()));
         });
   }
 
+  public Future<ApiResponse<List<RoleResponseDeleteAt>>> trashedBatch(BatchIdsRequest req, Deadline deadline) {
+    Span span = tracer.spanBuilder("RoleService.trashedBatch")
+        .setAttribute("role.batch_size", req.getIds().size())
+        .startSpan();
+
+    long startTime = System.currentTimeMillis();
+    logger.info("Trashing {} roles", req.getIds().size());
+
+    return repo.withDeadline(deadline).trashedBatch(req.toArray())
+        .compose(roles -> invalidateRoles(roles.stream().map(Role::getRoleId).toList()).map(roles))
+        .map(roles -> {
+          span.setAttribute("role.success", true);
+          span.setAttribute("role.affected", roles.size());
+          recordRequestMetrics("trashed_batch", "success", startTime);
+          span.end();
+
+          return ApiResponse.success(
+              "Roles trashed successfully",
+              roles.stream().map(RoleResponseDeleteAt::from).toList());
+        })
+        .recover(err -> {
+          logger.error("Failed to trash roles: {}", req.getIds(), err);
+          span.recordException(err);
+          span.setAttribute("role.success", false);
+          recordRequestMetrics("trashed_batch", "failed", startTime);
+          span.end();
+
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
+          return Future.succeededFuture(
+              ApiResponse.<List<RoleResponseDeleteAt>>error("Failed to trash roles: " + err.getMessage()));
+        });
+  }
+
+  public Future<ApiResponse<List<RoleResponseDeleteAt>>> restoreBatch(BatchIdsRequest req, Deadline deadline) {
+    Span span = tracer.spanBuilder("RoleService.restoreBatch")
+        .setAttribute("role.batch_size", req.getIds().size())
+        .startSpan();
+
+    long startTime = System.currentTimeMillis();
+    logger.info("Restoring {} roles", req.getIds().size());
+
+    return repo.withDeadline(deadline).restoreBatch(req.toArray())
+        .compose(roles -> invalidateRoles(roles.stream().map(Role::getRoleId).toList()).map(roles))
+        .map(roles -> {
+          span.setAttribute("role.success", true);
+          span.setAttribute("role.affected", roles.size());
+          recordRequestMetrics("restore_batch", "success", startTime);
+          span.end();
+
+          return ApiResponse.success(
+              "Roles restored successfully",
+              roles.stream().map(RoleResponseDeleteAt::from).toList());
+        })
+        .recover(err -> {
+          logger.error("Failed to restore roles: {}", req.getIds(), err);
+          span.recordException(err);
+          span.setAttribute("role.success", false);
+          recordRequestMetrics("restore_batch", "failed", startTime);
+          span.end();
+
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
+          return Future.succeededFuture(
+              ApiResponse.<List<RoleResponseDeleteAt>>error("Failed to restore roles: " + err.getMessage()));
+        });
+  }
+
+  public Future<ApiResponse<List<Integer>>> deletePermanentBatch(BatchIdsRequest req, Deadline deadline) {
+    Span span = tracer.spanBuilder("RoleService.deletePermanentBatch")
+        .setAttribute("role.batch_size", req.getIds().size())
+        .startSpan();
+
+    long startTime = System.currentTimeMillis();
+    logger.info("Deleting {} roles", req.getIds().size());
+
+    return repo.withDeadline(deadline).deletePermanentBatch(req.toArray())
+        .compose(deleted -> invalidateRoles(deleted).map(deleted))
+        .map(deleted -> {
+          span.setAttribute("role.success", true);
+          span.setAttribute("role.affected", deleted.size());
+          recordRequestMetrics("delete_batch", "success", startTime);
+          span.end();
+
+          return ApiResponse.success("Roles deleted successfully", deleted);
+        })
+        .recover(err -> {
+          logger.error("Failed to delete roles: {}", req.getIds(), err);
+          span.recordException(err);
+          span.setAttribute("role.success", false);
+          recordRequestMetrics("delete_batch", "failed", startTime);
+          span.end();
+
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
+          return Future.succeededFuture(
+              ApiResponse.<List<Integer>>error("Failed to delete roles: " + err.getMessage()));
+        });
+  }
+
+  private Future<Void> invalidateRoles(List<Integer> roleIds) {
+    if (roleIds.isEmpty()) {
+      return Future.succeededFuture();
+    }
+
+    List<String> cacheKeys = roleIds.stream().map(id -> "role:" + id).toList();
+
+    return redisService.delete(cacheKeys)
+        .onSuccess(deleted -> logger.debug("Invalidated {} cached roles", deleted))
+        .onFailure(err -> logger.warn("Failed to invalidate cache for {} roles: {}", roleIds.size(), err.getMessage()))
+        .recover(err -> Future.succeededFuture(0L))
+        .compose(deleted -> roleDirectory.invalidate());
+  }
+
   private ApiResponsePagination<List<RoleResponse>> mapRolePagination(
       long startTime,
       Span span,
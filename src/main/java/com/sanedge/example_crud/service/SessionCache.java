@@ -0,0 +1,150 @@
+package com.sanedge.example_crud.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sanedge.example_crud.domain.response.user.UserResponse;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.Meter;
+import io.vertx.core.Future;
+
+/**
+ * Node-local near-cache of {@code /me} profiles keyed by user id.
+ *
+ * Entries are dropped locally and on every other node (via
+ * {@link CacheInvalidationBus}) when a user logs out or is modified. A
+ * profile read that was in flight when its user was invalidated is not
+ * cached: callers take a {@link #readStarted()} token before reading and
+ * pass it to {@link #put}.
+ */
+public class SessionCache {
+  private static final Logger logger = LoggerFactory.getLogger(SessionCache.class);
+  public static final String INVALIDATION_CHANNEL = "session:invalidate";
+
+  private static final Attributes HIT = Attributes.of(AttributeKey.stringKey("result"), "hit");
+  private static final Attributes MISS = Attributes.of(AttributeKey.stringKey("result"), "miss");
+
+  private final CacheInvalidationBus bus;
+  private final Map<Integer, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final Map<Integer, Long> invalidatedAt = new ConcurrentHashMap<>();
+  private volatile long forgottenBefore;
+  private final long ttlMs;
+  private final int maxEntries;
+  private final LongCounter lookups;
+
+  private record Entry(UserResponse user, long expiresAt) {
+  }
+
+  public SessionCache(CacheInvalidationBus bus, OpenTelemetry openTelemetry) {
+    Meter meter = openTelemetry.getMeter("session-cache");
+
+    this.bus = bus;
+    this.ttlMs = Long.parseLong(System.getenv().getOrDefault("SESSION_CACHE_TTL_MS", "60000"));
+    this.maxEntries = Integer.parseInt(System.getenv().getOrDefault("SESSION_CACHE_MAX_ENTRIES", "10000"));
+    this.lookups = meter.counterBuilder("session_cache_lookups_total")
+        .setDescription("Local session near-cache lookups")
+        .build();
+
+    bus.subscribe(INVALIDATION_CHANNEL, this::onInvalidation);
+  }
+
+  public UserResponse get(Integer userId) {
+    Entry entry = entries.get(userId);
+
+    if (entry == null) {
+      lookups.add(1, MISS);
+      return null;
+    }
+
+    if (entry.expiresAt() < System.currentTimeMillis()) {
+      entries.remove(userId, entry);
+      lookups.add(1, MISS);
+      return null;
+    }
+
+    lookups.add(1, HIT);
+    return entry.user();
+  }
+
+  public long readStarted() {
+    return sequence.get();
+  }
+
+  public void put(Integer userId, UserResponse user, long readStarted) {
+    if (userId == null || user == null) {
+      return;
+    }
+    if (readStarted < forgottenBefore || invalidatedAt.getOrDefault(userId, Long.MIN_VALUE) > readStarted) {
+      return;
+    }
+
+    if (entries.size() >= maxEntries) {
+      long now = System.currentTimeMillis();
+      entries.values().removeIf(e -> e.expiresAt() < now);
+      if (entries.size() >= maxEntries) {
+        entries.clear();
+      }
+    }
+
+    entries.put(userId, new Entry(user, System.currentTimeMillis() + ttlMs));
+  }
+
+  public Future<Void> invalidate(Integer userId) {
+    if (userId == null) {
+      return Future.succeededFuture();
+    }
+
+    evictLocal(userId);
+    return bus.publish(INVALIDATION_CHANNEL, String.valueOf(userId))
+        .recover(err -> Future.succeededFuture());
+  }
+
+  public Future<Void> invalidateAll(Collection<Integer> userIds) {
+    if (userIds.isEmpty()) {
+      return Future.succeededFuture();
+    }
+
+    userIds.forEach(this::evictLocal);
+    String payload = userIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    return bus.publish(INVALIDATION_CHANNEL, payload)
+        .recover(err -> Future.succeededFuture());
+  }
+
+  public void evictLocal(Integer userId) {
+    if (invalidatedAt.size() >= maxEntries) {
+      // Forgetting per-user marks makes every older read uncacheable instead.
+      forgottenBefore = sequence.incrementAndGet();
+      invalidatedAt.clear();
+    }
+    invalidatedAt.put(userId, sequence.incrementAndGet());
+    entries.remove(userId);
+  }
+
+  public void clearLocal() {
+    forgottenBefore = sequence.incrementAndGet();
+    invalidatedAt.clear();
+    entries.clear();
+  }
+
+  private void onInvalidation(String payload) {
+    // Either a single user id or a comma-separated batch.
+    try {
+      for (String id : payload.split(",")) {
+        evictLocal(Integer.valueOf(id.strip()));
+      }
+    } catch (NumberFormatException e) {
+      logger.warn("Ignoring malformed session invalidation message: {}", payload);
+    }
+  }
+}
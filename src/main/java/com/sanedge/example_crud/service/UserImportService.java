@@ -0,0 +1,395 @@
+package com.sanedge.example_crud.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sanedge.example_crud.domain.requests.user.CreateUserRequest;
+import com.sanedge.example_crud.domain.response.user.UserImportSummary;
+import com.sanedge.example_crud.domain.response.user.UserImportSummary.RowError;
+import com.sanedge.example_crud.exception.BadRequestException;
+import com.sanedge.example_crud.repository.UserRepository;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.RecordParser;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * Bulk user import from a streamed NDJSON or CSV body. Lines are parsed as
+ * they arrive and collected into chunks; each chunk is hashed on worker
+ * threads and written with one multi-row insert that also assigns the
+ * default role. The body is paused while a chunk is in flight, so apart
+ * from the set of emails already seen, memory is bounded by the chunk size
+ * rather than the upload size.
+ */
+public class UserImportService {
+  private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+  private static final AttributeKey<String> RESULT = AttributeKey.stringKey("result");
+  private static final int MAX_FIELD_LENGTH = 100;
+  private static final int MAX_LINE_BYTES = 64 * 1024;
+
+  public static final String FORMAT_NDJSON = "ndjson";
+  public static final String FORMAT_CSV = "csv";
+
+  private final Vertx vertx;
+  private final UserRepository repository;
+  private final RoleDirectory roleDirectory;
+  private final PasswordHasher passwordHasher;
+  private final Tracer tracer;
+  private final LongCounter rowsTotal;
+
+  private final int chunkSize;
+  private final int hashParallelism;
+  private final int maxErrors;
+
+  public UserImportService(Vertx vertx, UserRepository repository, RoleDirectory roleDirectory,
+      PasswordHasher passwordHasher, OpenTelemetry openTelemetry) {
+    this.vertx = vertx;
+    this.repository = repository;
+    this.roleDirectory = roleDirectory;
+    this.passwordHasher = passwordHasher;
+    this.tracer = openTelemetry.getTracer("user-import-service", "1.0.0");
+    this.rowsTotal = openTelemetry.getMeter("user-import-service")
+        .counterBuilder("users_import_rows_total")
+        .setDescription("Rows processed by bulk user import")
+        .build();
+
+    this.chunkSize = Integer.parseInt(System.getenv().getOrDefault("USER_IMPORT_CHUNK_SIZE", "1000"));
+    this.hashParallelism = Integer.parseInt(System.getenv().getOrDefault("USER_IMPORT_HASH_PARALLELISM",
+        String.valueOf(Runtime.getRuntime().availableProcessors())));
+    this.maxErrors = Integer.parseInt(System.getenv().getOrDefault("USER_IMPORT_MAX_ERRORS", "100"));
+  }
+
+  public Future<UserImportSummary> importUsers(ReadStream<Buffer> body, String format) {
+    Span span = tracer.spanBuilder("UserImportService.importUsers")
+        .setAttribute("import.format", format)
+        .startSpan();
+    long startTime = System.currentTimeMillis();
+
+    return roleDirectory.getRoleByName(UserService.DEFAULT_ROLE)
+        .compose(role -> {
+          if (role == null) {
+            return Future.<UserImportSummary>failedFuture(new IllegalStateException(
+                "Default '" + UserService.DEFAULT_ROLE + "' role not found in the database."));
+          }
+          return new ImportJob(body, format, role.getRoleId()).run();
+        })
+        .onSuccess(summary -> {
+          logger.info("User import finished in {} ms | total={}, imported={}, skipped={}, failed={}",
+              System.currentTimeMillis() - startTime, summary.getTotal(), summary.getImported(),
+              summary.getSkipped(), summary.getFailed());
+          span.setAttribute("import.total", summary.getTotal());
+          span.setAttribute("import.imported", summary.getImported());
+          span.end();
+        })
+        .onFailure(err -> {
+          logger.error("User import failed", err);
+          span.recordException(err);
+          span.end();
+        });
+  }
+
+  private record PendingRow(long line, CreateUserRequest request) {
+  }
+
+  private final class ImportJob {
+    private final RecordParser parser;
+    private final boolean csv;
+    private final Integer roleId;
+    private final Promise<UserImportSummary> promise = Promise.promise();
+    private final Set<String> seenEmails = new HashSet<>();
+    private final List<RowError> errors = new ArrayList<>();
+
+    private List<PendingRow> pending = new ArrayList<>();
+    private Map<String, Integer> csvColumns;
+    private long line;
+    private long total;
+    private long imported;
+    private long skipped;
+    private long failed;
+    private boolean busy;
+    private boolean ended;
+    private Throwable aborted;
+
+    ImportJob(ReadStream<Buffer> body, String format, Integer roleId) {
+      this.parser = RecordParser.newDelimited("\n", body).maxRecordSize(MAX_LINE_BYTES);
+      this.csv = FORMAT_CSV.equals(format);
+      this.roleId = roleId;
+    }
+
+    Future<UserImportSummary> run() {
+      parser.exceptionHandler(this::abort);
+      parser.endHandler(v -> {
+        ended = true;
+        if (!busy && aborted == null) {
+          flush();
+        }
+      });
+      parser.handler(this::onLine);
+      parser.resume();
+      return promise.future();
+    }
+
+    private void onLine(Buffer buffer) {
+      line++;
+      String text = buffer.toString().strip();
+      if (text.isEmpty()) {
+        return;
+      }
+
+      if (csv && csvColumns == null) {
+        csvColumns = parseHeader(text);
+        return;
+      }
+
+      total++;
+      CreateUserRequest request;
+      try {
+        request = csv ? fromCsv(text) : fromJson(text);
+      } catch (RuntimeException e) {
+        fail(line, null, "Malformed row: " + e.getMessage());
+        return;
+      }
+
+      String problem = validate(request);
+      if (problem != null) {
+        fail(line, request.getEmail(), problem);
+        return;
+      }
+
+      if (!seenEmails.add(request.getEmail().toLowerCase(Locale.ROOT))) {
+        skip(line, request.getEmail(), "Duplicate email in import");
+        return;
+      }
+
+      pending.add(new PendingRow(line, request));
+      if (pending.size() >= chunkSize) {
+        flush();
+      }
+    }
+
+    /**
+     * Stops parsing on a body error or on a line over {@code MAX_LINE_BYTES},
+     * which the parser reports as an {@link IllegalStateException}. Rows still
+     * pending are dropped; a chunk in flight is awaited so the reported count
+     * of imported rows is final.
+     */
+    private void abort(Throwable err) {
+      if (aborted != null) {
+        return;
+      }
+      parser.pause();
+      aborted = err;
+      if (!busy) {
+        failAborted();
+      }
+    }
+
+    private void failAborted() {
+      promise.tryFail(aborted instanceof IllegalStateException
+          ? new BadRequestException("Line " + (line + 1) + " exceeds " + MAX_LINE_BYTES + " bytes; "
+              + imported + " rows imported before it")
+          : aborted);
+    }
+
+    private void flush() {
+      List<PendingRow> batch = pending;
+      pending = new ArrayList<>();
+
+      if (batch.isEmpty()) {
+        if (ended) {
+          complete();
+        }
+        return;
+      }
+
+      busy = true;
+      parser.pause();
+
+      writeChunk(batch).onComplete(ar -> {
+        busy = false;
+        if (aborted != null) {
+          failAborted();
+        } else if (ended) {
+          flush();
+        } else {
+          parser.resume();
+        }
+      });
+    }
+
+    private Future<Void> writeChunk(List<PendingRow> batch) {
+      return hashPasswords(batch)
+          .compose(v -> repository.insertUsersWithRole(
+              batch.stream().map(PendingRow::request).toList(), roleId))
+          .map(insertedEmails -> {
+            Set<String> inserted = new HashSet<>(insertedEmails);
+            for (PendingRow row : batch) {
+              if (inserted.contains(row.request().getEmail())) {
+                imported++;
+                rowsTotal.add(1, Attributes.of(RESULT, "imported"));
+              } else {
+                skip(row.line(), row.request().getEmail(), "Email already exists");
+              }
+            }
+            return (Void) null;
+          })
+          .recover(err -> {
+            logger.warn("Import chunk of {} rows failed: {}", batch.size(), err.getMessage());
+            for (PendingRow row : batch) {
+              fail(row.line(), row.request().getEmail(), err.getMessage());
+            }
+            return Future.succeededFuture();
+          });
+    }
+
+    private Future<Void> hashPasswords(List<PendingRow> batch) {
+      int sliceSize = Math.max(1, (batch.size() + hashParallelism - 1) / hashParallelism);
+      List<Future<Void>> slices = new ArrayList<>();
+
+      for (int from = 0; from < batch.size(); from += sliceSize) {
+        List<PendingRow> slice = batch.subList(from, Math.min(from + sliceSize, batch.size()));
+        slices.add(vertx.executeBlocking(() -> {
+          for (PendingRow row : slice) {
+            row.request().setPassword(passwordHasher.hash(row.request().getPassword()));
+          }
+          return null;
+        }, false));
+      }
+
+      return Future.all(slices).mapEmpty();
+    }
+
+    private void skip(long rowLine, String email, String message) {
+      skipped++;
+      rowsTotal.add(1, Attributes.of(RESULT, "skipped"));
+      recordError(rowLine, email, message);
+    }
+
+    private void fail(long rowLine, String email, String message) {
+      failed++;
+      rowsTotal.add(1, Attributes.of(RESULT, "failed"));
+      recordError(rowLine, email, message);
+    }
+
+    private void recordError(long rowLine, String email, String message) {
+      if (errors.size() < maxErrors) {
+        errors.add(new RowError(rowLine, email, message));
+      }
+    }
+
+    private void complete() {
+      promise.tryComplete(UserImportSummary.builder()
+          .total(total)
+          .imported(imported)
+          .skipped(skipped)
+          .failed(failed)
+          .errors(errors)
+          .build());
+    }
+
+    private CreateUserRequest fromJson(String text) {
+      JsonObject json = new JsonObject(text);
+      return CreateUserRequest.builder()
+          .firstName(trim(json.getString("firstname")))
+          .lastName(trim(json.getString("lastname")))
+          .email(trim(json.getString("email")))
+          .password(json.getString("password"))
+          .build();
+    }
+
+    private CreateUserRequest fromCsv(String text) {
+      List<String> fields = parseCsvLine(text);
+      return CreateUserRequest.builder()
+          .firstName(trim(csvField(fields, "firstname")))
+          .lastName(trim(csvField(fields, "lastname")))
+          .email(trim(csvField(fields, "email")))
+          .password(csvField(fields, "password"))
+          .build();
+    }
+
+    private String csvField(List<String> fields, String column) {
+      Integer index = csvColumns.get(column);
+      return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+  }
+
+  private static Map<String, Integer> parseHeader(String text) {
+    Map<String, Integer> columns = new HashMap<>();
+    List<String> names = parseCsvLine(text);
+    for (int i = 0; i < names.size(); i++) {
+      columns.put(names.get(i).strip().toLowerCase(Locale.ROOT), i);
+    }
+    return columns;
+  }
+
+  static List<String> parseCsvLine(String text) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+    boolean quoted = false;
+
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+          current.append('"');
+          i++;
+        } else if (c == '"') {
+          quoted = false;
+        } else {
+          current.append(c);
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(current.toString());
+        current.setLength(0);
+      } else {
+        current.append(c);
+      }
+    }
+
+    fields.add(current.toString());
+    return fields;
+  }
+
+  private static String validate(CreateUserRequest request) {
+    if (isBlank(request.getFirstName()) || isBlank(request.getLastName())
+        || isBlank(request.getEmail()) || isBlank(request.getPassword())) {
+      return "firstname, lastname, email and password are required";
+    }
+    if (request.getFirstName().length() > MAX_FIELD_LENGTH || request.getLastName().length() > MAX_FIELD_LENGTH
+        || request.getEmail().length() > MAX_FIELD_LENGTH) {
+      return "Fields must be at most " + MAX_FIELD_LENGTH + " characters";
+    }
+    if (request.getEmail().indexOf('@') < 1) {
+      return "Invalid email";
+    }
+    return null;
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  private static String trim(String value) {
+    return value != null ? value.strip() : null;
+  }
+}
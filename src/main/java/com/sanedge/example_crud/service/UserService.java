@@ -1,8 +1,13 @@
 package com.sanedge.example_crud.service;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import com.sanedge.example_crud.domain.requests.BatchIdsRequest;
+import com.sanedge.example_crud.domain.requests.Deadline;
 import com.sanedge.example_crud.domain.requests.user.CreateUserRequest;
 import com.sanedge.example_crud.domain.requests.user.FindAllUsers;
 import com.sanedge.example_crud.domain.requests.user.UpdateUserRequest;
@@ -12,14 +17,13 @@ import com.sanedge.example_crud.domain.response.api.PagedResult;
 import com.sanedge.example_crud.domain.response.api.PaginationMeta;
 import com.sanedge.example_crud.domain.response.user.UserResponse;
 import com.sanedge.example_crud.domain.response.user.UserResponseDeleteAt;
+import com.sanedge.example_crud.exception.ConflictException;
+import com.sanedge.example_crud.exception.DeadlineExceededException;
 import com.sanedge.example_crud.exception.NotFoundException;
+import com.sanedge.example_crud.model.Role;
 import com.sanedge.example_crud.model.User;
-import com.sanedge.example_crud.model.UserRole;
-import com.sanedge.example_crud.repository.RoleRepository;
 import com.sanedge.example_crud.repository.UserRepository;
-import com.sanedge.example_crud.repository.UserRoleRepository;
 
-import at.favre.lib.crypto.bcrypt.BCrypt;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import io.opentelemetry.api.metrics.LongCounter;
@@ -27,30 +31,39 @@ import io.opentelemetry.api.metrics.Meter;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.metrics.DoubleHistogram;
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class UserService {
   private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+  static final String DEFAULT_ROLE = "ADMIN";
+  public static final String EXPORT_FORMAT_NDJSON = "ndjson";
+  public static final String EXPORT_FORMAT_CSV = "csv";
+  private static final String CSV_HEADER = "user_id,firstname,lastname,email,created_at,updated_at,roles\n";
   private final UserRepository repository;
-  private final RoleRepository roleRepository;
-  private final UserRoleRepository userRoleRepository;
   private final RedisService redisService;
+  private final SessionCache sessionCache;
+  private final PasswordHasher passwordHasher;
+  private final int exportFetchSize;
   private final Tracer tracer;
   private final LongCounter requestsTotal;
   private final DoubleHistogram requestDurationSeconds;
 
-  public UserService(UserRepository repository, RoleRepository roleRepository, UserRoleRepository userRoleRepository,
-      RedisService redisService, OpenTelemetry openTelemetry) {
+  public UserService(UserRepository repository, RedisService redisService, SessionCache sessionCache,
+      PasswordHasher passwordHasher, OpenTelemetry openTelemetry) {
     Tracer tracer = openTelemetry.getTracer("user-service", "1.0.0");
     Meter meter = openTelemetry.getMeter("user-service");
 
     this.repository = repository;
-    this.roleRepository = roleRepository;
-    this.userRoleRepository = userRoleRepository;
     this.redisService = redisService;
+    this.sessionCache = sessionCache;
+    this.passwordHasher = passwordHasher;
+    this.exportFetchSize = Integer.parseInt(System.getenv().getOrDefault("USER_EXPORT_FETCH_SIZE", "500"));
     this.tracer = tracer;
     this.requestsTotal = meter.counterBuilder("requests_total")
         .setDescription("Total number of requests")
@@ -62,7 +75,7 @@ public class UserService {
   }
 
   public Future<ApiResponsePagination<List<UserResponse>>> getAllUsers(
-      FindAllUsers req) {
+      FindAllUsers req, Deadline deadline) {
     Span span = tracer.spanBuilder("UserService.getAllUsers").startSpan();
     long startTime = System.currentTimeMillis();
 
@@ -78,7 +91,7 @@ public class UserService {
     req.setPageSize(pageSize);
     req.setSearch(keyword);
 
-    return repository.getUsers(req)
+    return repository.withDeadline(deadline).getUsers(req)
         .map(result -> mapUserPagination(startTime, span,
             result, req, "Users users fetched successfully"))
         .onFailure(throwable -> {
@@ -93,7 +106,7 @@ public class UserService {
   }
 
   public Future<ApiResponsePagination<List<UserResponseDeleteAt>>> getActiveUsers(
-      FindAllUsers req) {
+      FindAllUsers req, Deadline deadline) {
     Span span = tracer.spanBuilder("UserService.getActiveUsers").startSpan();
     long startTime = System.currentTimeMillis();
 
@@ -109,7 +122,7 @@ public class UserService {
     req.setPageSize(pageSize);
     req.setSearch(keyword);
 
-    return repository.getActiveUsers(req)
+    return repository.withDeadline(deadline).getActiveUsers(req)
         .map(result -> mapUserPaginationDeleteAt("get_active", startTime, span,
             result, req, "Users users fetched successfully"))
         .onFailure(throwable -> {
@@ -124,7 +137,7 @@ public class UserService {
   }
 
   public Future<ApiResponsePagination<List<UserResponseDeleteAt>>> getTrashedUsers(
-      FindAllUsers req) {
+      FindAllUsers req, Deadline deadline) {
     Span span = tracer.spanBuilder("UserService.getActiveUsers").startSpan();
     long startTime = System.currentTimeMillis();
 
@@ -140,7 +153,7 @@ public class UserService {
     req.setPageSize(pageSize);
     req.setSearch(keyword);
 
-    return repository.getTrashedUsers(req)
+    return repository.withDeadline(deadline).getTrashedUsers(req)
         .map(result -> mapUserPaginationDeleteAt("get_trashed", startTime, span,
             result, req, "Users users fetched successfully"))
         .onFailure(throwable -> {
@@ -154,7 +167,102 @@ public class UserService {
         });
   }
 
-  public Future<ApiResponse<UserResponse>> createUser(CreateUserRequest req) {
+  public Future<Long> exportUsers(String format, WriteStream<Buffer> out) {
+    Span span = tracer.spanBuilder("UserService.exportUsers")
+        .setAttribute("export.format", format)
+        .startSpan();
+    long startTime = System.currentTimeMillis();
+
+    logger.info("Exporting users | format={}, fetchSize={}", format, exportFetchSize);
+
+    Function<User, Buffer> encoder;
+    if (EXPORT_FORMAT_CSV.equals(format)) {
+      out.write(Buffer.buffer(CSV_HEADER));
+      encoder = UserService::toCsvLine;
+    } else {
+      encoder = UserService::toNdjsonLine;
+    }
+
+    return repository.streamUsersWithRoles(exportFetchSize, out, encoder)
+        .onSuccess(count -> {
+          logger.info("Exported {} users as {}", count, format);
+          span.setAttribute("export.rows", count);
+          span.setAttribute("users.success", true);
+          recordRequestMetrics("export", "success", startTime);
+          span.end();
+        })
+        .onFailure(throwable -> {
+          logger.error("Failed to export users", throwable);
+          span.recordException(throwable);
+          span.setAttribute("users.success", false);
+          recordRequestMetrics("export", "failed", startTime);
+          span.end();
+        });
+  }
+
+  /**
+   * One export line. Timestamps are ISO-8601, as in the CSV; {@link User#toJson()}
+   * is the cache format and writes epoch millis.
+   */
+  private static Buffer toNdjsonLine(User user) {
+    JsonObject json = new JsonObject()
+        .put("userId", user.getUserId())
+        .put("firstname", user.getFirstname())
+        .put("lastname", user.getLastname())
+        .put("email", user.getEmail());
+    putIso(json, "createdAt", user.getCreatedAt());
+    putIso(json, "updatedAt", user.getUpdatedAt());
+
+    if (user.getRoles() != null && !user.getRoles().isEmpty()) {
+      JsonArray roles = new JsonArray();
+      for (Role role : user.getRoles()) {
+        JsonObject roleJson = new JsonObject()
+            .put("roleId", role.getRoleId())
+            .put("roleName", role.getRoleName());
+        putIso(roleJson, "createdAt", role.getCreatedAt());
+        putIso(roleJson, "updatedAt", role.getUpdatedAt());
+        roles.add(roleJson);
+      }
+      json.put("roles", roles);
+    }
+
+    return Buffer.buffer(json.encode()).appendString("\n");
+  }
+
+  private static void putIso(JsonObject json, String field, Instant value) {
+    if (value != null) {
+      json.put(field, value.toString());
+    }
+  }
+
+  private static Buffer toCsvLine(User user) {
+    String roles = user.getRoles() == null
+        ? ""
+        : user.getRoles().stream().map(Role::getRoleName).collect(Collectors.joining("|"));
+
+    return Buffer.buffer(String.join(",",
+        String.valueOf(user.getUserId()),
+        csvField(user.getFirstname()),
+        csvField(user.getLastname()),
+        csvField(user.getEmail()),
+        csvField(user.getCreatedAt() != null ? user.getCreatedAt().toString() : null),
+        csvField(user.getUpdatedAt() != null ? user.getUpdatedAt().toString() : null),
+        csvField(roles)))
+        .appendString("\n");
+  }
+
+  private static String csvField(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1
+        && value.indexOf('\r') == -1) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  public Future<ApiResponse<UserResponse>> createUser(CreateUserRequest req, Deadline deadline) {
     Span span = tracer.spanBuilder("UserService.createUser")
         .setAttribute("user.email", req.getEmail())
         .setAttribute("user.firstname", req.getFirstName())
@@ -164,27 +272,15 @@ public class UserService {
     long startTime = System.currentTimeMillis();
     logger.info("Creating user: {} {}, email: {}", req.getFirstName(), req.getLastName(), req.getEmail());
 
-    String hashed = BCrypt.withDefaults().hashToString(12, req.getPassword().toCharArray());
-    req.setPassword(hashed);
+    req.setPassword(passwordHasher.hash(req.getPassword()));
 
-    return repository.createUser(req)
+    return repository.withDeadline(deadline).createUserWithRole(req, DEFAULT_ROLE)
         .compose((User createdUser) -> {
-          logger.info("User created in DB: {}, user_id: {}", createdUser.getEmail(), createdUser.getUserId());
-          return roleRepository.getRoleByName("ADMIN")
-              .compose(role -> {
-                if (role == null) {
-                  return Future
-                      .failedFuture(new IllegalStateException("Default 'ADMIN' role not found in the database."));
-                }
-
-                UserRole userRole = new UserRole();
-
-                userRole.setRoleId(role.getRoleId());
-                userRole.setUserId(createdUser.getUserId());
-
-                return userRoleRepository.assignRoleToUser(userRole)
-                    .map(v -> createdUser);
-              });
+          if (createdUser == null) {
+            return Future.<User>failedFuture(
+                new IllegalStateException("Default '" + DEFAULT_ROLE + "' role not found in the database."));
+          }
+          return Future.succeededFuture(createdUser);
         })
         .map(createdUser -> {
           logger.info("User created and role assigned successfully: {}, user_id: {}", createdUser.getEmail(),
@@ -206,11 +302,15 @@ public class UserService {
           recordRequestMetrics("create", "failed", startTime);
           span.end();
 
+          if (throwable instanceof DeadlineExceededException || throwable instanceof ConflictException) {
+            return Future.failedFuture(throwable);
+          }
+
           return Future.succeededFuture(ApiResponse.error("Failed to create user: " + throwable.getMessage()));
         });
   }
 
-  public Future<ApiResponse<UserResponse>> getUserById(Integer userId) {
+  public Future<ApiResponse<UserResponse>> getUserById(Integer userId, Deadline deadline) {
     Span span = tracer.spanBuilder("UserService.getUserById")
         .setAttribute("user.id", userId)
         .startSpan();
@@ -236,10 +336,10 @@ public class UserService {
                   UserResponse.from(user)));
             } catch (Exception e) {
               logger.warn("Failed to parse cached user data for user {}: {}", userId, e.getMessage());
-              return fetchUserFromDatabase(userId, span, startTime);
+              return fetchUserFromDatabase(userId, span, startTime, deadline);
             }
           } else {
-            return fetchUserFromDatabase(userId, span, startTime);
+            return fetchUserFromDatabase(userId, span, startTime, deadline);
           }
         })
         .recover(err -> {
@@ -249,16 +349,21 @@ public class UserService {
           recordRequestMetrics("get_by_id", "failed", startTime);
           span.end();
 
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<UserResponse>error(
                   "Failed to fetch user: " + err.getMessage()));
         });
   }
 
-  private Future<ApiResponse<UserResponse>> fetchUserFromDatabase(Integer userId, Span span, long startTime) {
+  private Future<ApiResponse<UserResponse>> fetchUserFromDatabase(Integer userId, Span span, long startTime,
+      Deadline deadline) {
     span.setAttribute("user.cache_hit", false);
 
-    return repository.getUserById(userId)
+    return repository.withDeadline(deadline).getUserById(userId)
         .compose((User user) -> {
           if (user == null) {
             span.setAttribute("user.success", false);
@@ -286,7 +391,7 @@ public class UserService {
         });
   }
 
-  public Future<ApiResponse<UserResponse>> updateUser(UpdateUserRequest req) {
+  public Future<ApiResponse<UserResponse>> updateUser(UpdateUserRequest req, Deadline deadline) {
     Integer userId = req.getUserId();
 
     Span span = tracer.spanBuilder("UserService.updateUser")
@@ -299,7 +404,7 @@ public class UserService {
     long startTime = System.currentTimeMillis();
     logger.info("Updating user: {}, email: {}", userId, req.getEmail());
 
-    return repository.updateUser(req)
+    return repository.withDeadline(deadline).updateUser(req)
         .compose(user -> {
           String cacheKey = "user:" + user.getUserId();
           return redisService.delete(cacheKey)
@@ -310,7 +415,8 @@ public class UserService {
               })
               .onFailure(
                   err -> logger.warn("Failed to invalidate cache for user {}: {}", user.getUserId(), err.getMessage()))
-              .map(deleted -> user);
+              .compose(deleted -> sessionCache.invalidate(user.getUserId()))
+              .map(user);
         })
         .map(user -> {
           logger.info("User updated successfully: {}", user.getUserId());
@@ -329,13 +435,17 @@ public class UserService {
           recordRequestMetrics("update", "failed", startTime);
           span.end();
 
+          if (err instanceof DeadlineExceededException || err instanceof ConflictException) {
+            return Future.failedFuture(err);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<UserResponse>error(
                   "Failed to update user: " + err.getMessage()));
         });
   }
 
-  public Future<ApiResponse<UserResponseDeleteAt>> trashed(Integer userId) {
+  public Future<ApiResponse<UserResponseDeleteAt>> trashed(Integer userId, Deadline deadline) {
     Span span = tracer.spanBuilder("UserService.trashed")
         .setAttribute("user.id", userId)
         .startSpan();
@@ -343,7 +453,7 @@ public class UserService {
     long startTime = System.currentTimeMillis();
     logger.info("Trashed user: {}", userId);
 
-    return repository.trashed(userId)
+    return repository.withDeadline(deadline).trashed(userId)
         .compose(user -> {
           if (user == null) {
             span.setAttribute("user.success", false);
@@ -362,6 +472,7 @@ public class UserService {
               })
               .onFailure(
                   err -> logger.warn("Failed to invalidate cache for trashed user {}: {}", userId, err.getMessage()))
+              .compose(deleted -> sessionCache.invalidate(userId))
               .map(user);
         })
         .map(user -> {
@@ -383,13 +494,17 @@ public class UserService {
           recordRequestMetrics("delete", "failed", startTime);
           span.end();
 
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<UserResponseDeleteAt>error(
                   "Failed to trashed user: " + err.getMessage()));
         });
   }
 
-  public Future<ApiResponse<UserResponseDeleteAt>> restore(Integer userId) {
+  public Future<ApiResponse<UserResponseDeleteAt>> restore(Integer userId, Deadline deadline) {
     Span span = tracer.spanBuilder("UserService.restore")
         .setAttribute("user.id", userId)
         .startSpan();
@@ -397,7 +512,7 @@ public class UserService {
     long startTime = System.currentTimeMillis();
     logger.info("Restoring user: {}", userId);
 
-    return repository.restore(userId)
+    return repository.withDeadline(deadline).restore(userId)
         .compose(user -> {
           if (user == null) {
             span.setAttribute("user.success", false);
@@ -417,6 +532,7 @@ public class UserService {
               })
               .onFailure(
                   err -> logger.warn("Failed to invalidate cache for restored user {}: {}", userId, err.getMessage()))
+              .compose(deleted -> sessionCache.invalidate(userId))
               .map(user);
         })
         .map(user -> {
@@ -438,13 +554,17 @@ public class UserService {
           recordRequestMetrics("restore", "failed", startTime);
           span.end();
 
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<UserResponseDeleteAt>error(
                   "Failed to restore user: " + err.getMessage()));
         });
   }
 
-  public Future<ApiResponse<Void>> deletePermanent(Integer userId) {
+  public Future<ApiResponse<Void>> deletePermanent(Integer userId, Deadline deadline) {
     Span span = tracer.spanBuilder("UserService.deleteUser")
         .setAttribute("user.id", userId)
         .startSpan();
@@ -452,7 +572,7 @@ public class UserService {
     long startTime = System.currentTimeMillis();
     logger.info("Deleting user: {}", userId);
 
-    return repository.deletePermanent(userId)
+    return repository.withDeadline(deadline).deletePermanent(userId)
         .compose(v -> {
           String cacheKey = "user:" + userId;
           return redisService.delete(cacheKey)
@@ -463,6 +583,7 @@ public class UserService {
               })
               .onFailure(
                   err -> logger.warn("Failed to invalidate cache for deleted user {}: {}", userId, err.getMessage()))
+              .compose(deleted -> sessionCache.invalidate(userId))
               .map(v);
         })
         .map(v -> {
@@ -480,11 +601,134 @@ public class UserService {
           recordRequestMetrics("delete", "failed", startTime);
           span.end();
 
+          if (throwable instanceof DeadlineExceededException) {
+            return Future.failedFuture(throwable);
+          }
+
           return Future.succeededFuture(
               ApiResponse.<Void>error("Failed to delete user: " + throwable.getMessage()));
         });
   }
 
+  public Future<ApiResponse<List<UserResponseDeleteAt>>> trashedBatch(BatchIdsRequest req, Deadline deadline) {
+    Span span = tracer.spanBuilder("UserService.trashedBatch")
+        .setAttribute("user.batch_size", req.getIds().size())
+        .startSpan();
+
+    long startTime = System.currentTimeMillis();
+    logger.info("Trashing {} users", req.getIds().size());
+
+    return repository.withDeadline(deadline).trashedBatch(req.toArray())
+        .compose(users -> invalidateUsers(users.stream().map(User::getUserId).toList()).map(users))
+        .map(users -> {
+          logger.info("Trashed {} of {} users", users.size(), req.getIds().size());
+          span.setAttribute("user.success", true);
+          span.setAttribute("user.affected", users.size());
+          recordRequestMetrics("trashed_batch", "success", startTime);
+          span.end();
+
+          return ApiResponse.success(
+              "Users trashed successfully",
+              users.stream().map(UserResponseDeleteAt::from).toList());
+        })
+        .recover(err -> {
+          logger.error("Failed to trash users: {}", req.getIds(), err);
+          span.recordException(err);
+          span.setAttribute("user.success", false);
+          recordRequestMetrics("trashed_batch", "failed", startTime);
+          span.end();
+
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
+          return Future.succeededFuture(
+              ApiResponse.<List<UserResponseDeleteAt>>error("Failed to trash users: " + err.getMessage()));
+        });
+  }
+
+  public Future<ApiResponse<List<UserResponseDeleteAt>>> restoreBatch(BatchIdsRequest req, Deadline deadline) {
+    Span span = tracer.spanBuilder("UserService.restoreBatch")
+        .setAttribute("user.batch_size", req.getIds().size())
+        .startSpan();
+
+    long startTime = System.currentTimeMillis();
+    logger.info("Restoring {} users", req.getIds().size());
+
+    return repository.withDeadline(deadline).restoreBatch(req.toArray())
+        .compose(users -> invalidateUsers(users.stream().map(User::getUserId).toList()).map(users))
+        .map(users -> {
+          logger.info("Restored {} of {} users", users.size(), req.getIds().size());
+          span.setAttribute("user.success", true);
+          span.setAttribute("user.affected", users.size());
+          recordRequestMetrics("restore_batch", "success", startTime);
+          span.end();
+
+          return ApiResponse.success(
+              "Users restored successfully",
+              users.stream().map(UserResponseDeleteAt::from).toList());
+        })
+        .recover(err -> {
+          logger.error("Failed to restore users: {}", req.getIds(), err);
+          span.recordException(err);
+          span.setAttribute("user.success", false);
+          recordRequestMetrics("restore_batch", "failed", startTime);
+          span.end();
+
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
+          return Future.succeededFuture(
+              ApiResponse.<List<UserResponseDeleteAt>>error("Failed to restore users: " + err.getMessage()));
+        });
+  }
+
+  public Future<ApiResponse<List<Integer>>> deletePermanentBatch(BatchIdsRequest req, Deadline deadline) {
+    Span span = tracer.spanBuilder("UserService.deletePermanentBatch")
+        .setAttribute("user.batch_size", req.getIds().size())
+        .startSpan();
+
+    long startTime = System.currentTimeMillis();
+    logger.info("Deleting {} users", req.getIds().size());
+
+    return repository.withDeadline(deadline).deletePermanentBatch(req.toArray())
+        .compose(deleted -> invalidateUsers(deleted).map(deleted))
+        .map(deleted -> {
+          logger.info("Deleted {} of {} users", deleted.size(), req.getIds().size());
+          span.setAttribute("user.success", true);
+          span.setAttribute("user.affected", deleted.size());
+          recordRequestMetrics("delete_batch", "success", startTime);
+          span.end();
+
+          return ApiResponse.success("Users deleted successfully", deleted);
+        })
+        .recover(err -> {
+          logger.error("Failed to delete users: {}", req.getIds(), err);
+          span.recordException(err);
+          span.setAttribute("user.success", false);
+          recordRequestMetrics("delete_batch", "failed", startTime);
+          span.end();
+
+          if (err instanceof DeadlineExceededException) {
+            return Future.failedFuture(err);
+          }
+
+          return Future.succeededFuture(
+              ApiResponse.<List<Integer>>error("Failed to delete users: " + err.getMessage()));
+        });
+  }
+
+  private Future<Void> invalidateUsers(List<Integer> userIds) {
+    List<String> cacheKeys = userIds.stream().map(id -> "user:" + id).toList();
+
+    return redisService.delete(cacheKeys)
+        .onSuccess(deleted -> logger.debug("Invalidated {} cached users", deleted))
+        .onFailure(err -> logger.warn("Failed to invalidate cache for {} users: {}", userIds.size(), err.getMessage()))
+        .recover(err -> Future.succeededFuture(0L))
+        .compose(deleted -> sessionCache.invalidateAll(userIds));
+  }
+
   private ApiResponsePagination<List<UserResponse>> mapUserPagination(
       long startTime,
       Span span,
@@ -9,22 +9,35 @@ import com.sanedge.example_crud.config.RedisConfig;
 import com.sanedge.example_crud.config.TelemetryConfig;
 import com.sanedge.example_crud.domain.response.api.ApiResponse;
 import com.sanedge.example_crud.exception.ApiException;
+import com.sanedge.example_crud.handler.AdminHandler;
 import com.sanedge.example_crud.handler.AuthHandler;
 import com.sanedge.example_crud.handler.RoleHandler;
 import com.sanedge.example_crud.handler.UserHandler;
+import com.sanedge.example_crud.job.RefreshTokenPurgeJob;
+import com.sanedge.example_crud.middleware.LoginThrottle;
+import com.sanedge.example_crud.repository.DataSourceRouter;
 import com.sanedge.example_crud.repository.RefreshTokenRepository;
 import com.sanedge.example_crud.repository.RoleRepository;
+import com.sanedge.example_crud.repository.SlowQueryObserver;
+import com.sanedge.example_crud.repository.UserInsertCoalescer;
 import com.sanedge.example_crud.repository.UserRepository;
-import com.sanedge.example_crud.repository.UserRoleRepository;
 import com.sanedge.example_crud.routes.RouteRegistrar;
 import com.sanedge.example_crud.seeder.DatabaseSeeder;
 import com.sanedge.example_crud.service.AuthService;
+import com.sanedge.example_crud.service.PasswordHasher;
+import com.sanedge.example_crud.service.CacheInvalidationBus;
+import com.sanedge.example_crud.service.DatabaseChangeListener;
 import com.sanedge.example_crud.service.RedisService;
+import com.sanedge.example_crud.service.RoleDirectory;
+import com.sanedge.example_crud.service.RoleRegistry;
 import com.sanedge.example_crud.service.RoleService;
+import com.sanedge.example_crud.service.SessionCache;
+import com.sanedge.example_crud.service.UserImportService;
 import com.sanedge.example_crud.service.UserService;
 
 import io.opentelemetry.api.OpenTelemetry;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
 import io.vertx.core.http.HttpServerResponse;
@@ -35,7 +48,6 @@ import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import io.vertx.pgclient.PgConnectOptions;
 import io.vertx.redis.client.RedisAPI;
-import io.vertx.sqlclient.Pool;
 import io.vertx.sqlclient.PoolOptions;
 import io.vertx.tracing.opentelemetry.OpenTelemetryOptions;
 
@@ -151,14 +163,23 @@ public class MainVerticle extends AbstractVerticle {
         .setHost("app-db")
         .setDatabase("example_vertx_crud")
         .setUser("postgress")
-        .setPassword("password");
+        .setPassword("password")
+        .setCachePreparedStatements(
+            Boolean.parseBoolean(System.getenv().getOrDefault("DB_PREPARED_STATEMENT_CACHE", "true")))
+        .setPreparedStatementCacheMaxSize(
+            Integer.parseInt(System.getenv().getOrDefault("DB_PREPARED_STATEMENT_CACHE_MAX_SIZE", "256")))
+        .setPreparedStatementCacheSqlLimit(
+            Integer.parseInt(System.getenv().getOrDefault("DB_PREPARED_STATEMENT_CACHE_SQL_LIMIT", "2048")));
 
     FlywayConfig.runMigrations(connectOptions);
 
     JWTAuth jwtProvider = JwtConfig.createProvider(vertx);
 
-    PoolOptions poolOptions = new PoolOptions().setMaxSize(5);
-    Pool client = Pool.pool(vertx, connectOptions, poolOptions);
+    PoolOptions poolOptions = new PoolOptions()
+        .setMaxSize(Integer.parseInt(System.getenv().getOrDefault("DB_POOL_MAX_SIZE", "5")));
+    SlowQueryObserver slowQueryObserver = new SlowQueryObserver(telemetry);
+    DataSourceRouter db = DataSourceRouter.create(vertx, connectOptions, poolOptions, slowQueryObserver, telemetry);
+    db.start();
 
     RedisAPI redisAPI = RedisConfig.createClient(vertx);
     RedisService redisService = new RedisService(redisAPI, telemetry);
@@ -167,29 +188,64 @@ public class MainVerticle extends AbstractVerticle {
         .onSuccess(response -> logger.info("✅ Redis connected successfully: {}", response))
         .onFailure(err -> logger.error("❌ Failed to connect to Redis: {}", err.getMessage()));
 
-    DatabaseSeeder.runSeeder(client, true);
+    CacheInvalidationBus invalidationBus = new CacheInvalidationBus(vertx, RedisConfig.createSubscriber(vertx),
+        redisAPI);
+    invalidationBus.start();
+    SessionCache sessionCache = new SessionCache(invalidationBus, telemetry);
 
-    UserRepository userRepo = new UserRepository(client);
-    RoleRepository roleRepo = new RoleRepository(client);
-    RefreshTokenRepository refreshTokenRepository = new RefreshTokenRepository(client);
-    UserRoleRepository userRoleRepo = new UserRoleRepository(client);
+    PasswordHasher passwordHasher = PasswordHasher.calibrate();
 
-    UserService userService = new UserService(userRepo, roleRepo, userRoleRepo, redisService, telemetry);
-    UserHandler userHandler = new UserHandler(userService);
+    UserRepository userRepo = new UserRepository(db);
+    RoleRepository roleRepo = new RoleRepository(db);
 
-    AuthService authService = new AuthService(userRepo, refreshTokenRepository, redisService, jwtProvider, telemetry);
-    AuthHandler authHandler = new AuthHandler(authService, userService);
+    RoleRegistry roleRegistry = new RoleRegistry();
+    RoleDirectory roleDirectory = new RoleDirectory(roleRepo, roleRegistry, invalidationBus);
+    Future<Void> rolesLoaded = DatabaseSeeder.runSeeder(db, passwordHasher, true)
+        .transform(ar -> roleDirectory.refresh())
+        // A failed first load is retried by the periodic refresh below.
+        .otherwiseEmpty();
+    long roleRefreshMs = Long.parseLong(System.getenv().getOrDefault("ROLE_REGISTRY_REFRESH_MS", "60000"));
+    vertx.setPeriodic(roleRefreshMs, id -> roleDirectory.refresh());
 
-    RoleService roleService = new RoleService(roleRepo, redisService, telemetry);
+    DatabaseChangeListener databaseChangeListener = new DatabaseChangeListener(vertx, db, connectOptions, redisService,
+        sessionCache, roleDirectory, telemetry);
+    databaseChangeListener.start();
+
+    RefreshTokenRepository refreshTokenRepository = new RefreshTokenRepository(db, redisService);
+
+    UserService userService = new UserService(userRepo, redisService, sessionCache, passwordHasher, telemetry);
+    UserImportService userImportService = new UserImportService(vertx, userRepo, roleDirectory, passwordHasher,
+        telemetry);
+    UserHandler userHandler = new UserHandler(userService, userImportService);
+
+    UserInsertCoalescer userInsertCoalescer = new UserInsertCoalescer(vertx, userRepo, telemetry);
+    AuthService authService = new AuthService(vertx, userRepo, userInsertCoalescer, refreshTokenRepository,
+        redisService, sessionCache, passwordHasher, jwtProvider, telemetry);
+    AuthHandler authHandler = new AuthHandler(authService, userService, sessionCache);
+
+    RefreshTokenPurgeJob refreshTokenPurgeJob = new RefreshTokenPurgeJob(vertx, refreshTokenRepository, redisService,
+        telemetry);
+    refreshTokenPurgeJob.start();
+
+    RoleService roleService = new RoleService(roleRepo, redisService, roleDirectory, telemetry);
     RoleHandler roleHandler = new RoleHandler(roleService);
 
-    Router router = RouteRegistrar.register(vertx, jwtProvider, authHandler, userHandler, roleHandler);
+    LoginThrottle loginThrottle = new LoginThrottle(redisService, telemetry);
+
+    AdminHandler adminHandler = new AdminHandler(slowQueryObserver);
+
+    Router router = RouteRegistrar.register(vertx, jwtProvider, authHandler, userHandler, roleHandler,
+        adminHandler, loginThrottle, roleRegistry);
 
     setupGlobalErrorHandler(router);
 
-    vertx.createHttpServer()
-        .requestHandler(router)
-        .listen(8888)
+    // Listen only once the pools are warm, so the first requests do not pay
+    // for connection setup and statement preparation, and once the roles are
+    // loaded, so role checks do not reject every request until then.
+    Future.all(db.warmUp(), rolesLoaded)
+        .compose(v -> vertx.createHttpServer()
+            .requestHandler(router)
+            .listen(8888))
         .onSuccess(s -> logger.info("✅ Server running on http://localhost:8888"));
   }
 }
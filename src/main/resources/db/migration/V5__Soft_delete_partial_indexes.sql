@@ -0,0 +1,51 @@
+-- Partial indexes matching the soft-delete listings.
+-- Active listings filter deleted_at IS NULL, trash listings deleted_at IS NOT NULL;
+-- INCLUDE carries the list projection so the pages can be served index-only;
+-- deleted_at is always NULL in the active indexes and costs only a null-bitmap bit.
+
+-- users: GET /users, active listing (ORDER BY created_at DESC)
+CREATE INDEX "idx_users_active_created_at" ON "users" ("created_at" DESC, "user_id")
+    INCLUDE ("firstname", "lastname", "email", "updated_at", "deleted_at")
+    WHERE "deleted_at" IS NULL;
+
+-- users: trash listing (ORDER BY created_at DESC)
+CREATE INDEX "idx_users_trashed_created_at" ON "users" ("created_at" DESC, "user_id")
+    INCLUDE ("firstname", "lastname", "email", "updated_at", "deleted_at")
+    WHERE "deleted_at" IS NOT NULL;
+
+-- roles: active listing (ORDER BY created_at ASC)
+CREATE INDEX "idx_roles_active_created_at" ON "roles" ("created_at", "role_id")
+    INCLUDE ("role_name", "updated_at", "deleted_at")
+    WHERE "deleted_at" IS NULL;
+
+-- roles: trash listing (ORDER BY deleted_at DESC)
+CREATE INDEX "idx_roles_trashed_deleted_at" ON "roles" ("deleted_at" DESC, "role_id")
+    INCLUDE ("role_name", "created_at", "updated_at")
+    WHERE "deleted_at" IS NOT NULL;
+
+-- roles: GET /roles lists active and trashed roles together (ORDER BY created_at),
+-- which neither partial index can serve, so the V1 index becomes covering
+DROP INDEX IF EXISTS "idx_roles_created_at";
+CREATE INDEX "idx_roles_created_at" ON "roles" ("created_at", "role_id")
+    INCLUDE ("role_name", "updated_at", "deleted_at");
+
+-- Redundant with UNIQUE constraints
+DROP INDEX IF EXISTS "idx_users_email";
+DROP INDEX IF EXISTS "idx_roles_role_name";
+DROP INDEX IF EXISTS "idx_refresh_tokens_token";
+
+-- Prefix of idx_user_roles_user_id_role_id. The user_roles indexes stay non-partial
+-- because ON DELETE CASCADE has to find soft-deleted memberships too.
+DROP INDEX IF EXISTS "idx_user_roles_user_id";
+
+-- Superseded by the partial indexes above
+DROP INDEX IF EXISTS "idx_users_created_at";
+
+-- Never used by a query: searches are ILIKE '%term%', which a btree cannot serve,
+-- and nothing filters or sorts on updated_at
+DROP INDEX IF EXISTS "idx_users_firstname";
+DROP INDEX IF EXISTS "idx_users_lastname";
+DROP INDEX IF EXISTS "idx_users_firstname_lastname";
+DROP INDEX IF EXISTS "idx_roles_updated_at";
+DROP INDEX IF EXISTS "idx_user_roles_created_at";
+DROP INDEX IF EXISTS "idx_user_roles_updated_at";
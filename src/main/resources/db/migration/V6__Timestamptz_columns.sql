@@ -0,0 +1,25 @@
+-- Store every timestamp as timestamptz so reads map straight to Instant and
+-- no longer depend on the session or JVM time zone.
+-- Existing values were written in UTC (the database and app containers run in UTC).
+-- The partial indexes on created_at/deleted_at are rebuilt by the type change.
+
+ALTER TABLE "roles"
+    ALTER COLUMN "created_at" TYPE timestamptz USING "created_at" AT TIME ZONE 'UTC',
+    ALTER COLUMN "updated_at" TYPE timestamptz USING "updated_at" AT TIME ZONE 'UTC',
+    ALTER COLUMN "deleted_at" TYPE timestamptz USING "deleted_at" AT TIME ZONE 'UTC';
+
+ALTER TABLE "users"
+    ALTER COLUMN "created_at" TYPE timestamptz USING "created_at" AT TIME ZONE 'UTC',
+    ALTER COLUMN "updated_at" TYPE timestamptz USING "updated_at" AT TIME ZONE 'UTC',
+    ALTER COLUMN "deleted_at" TYPE timestamptz USING "deleted_at" AT TIME ZONE 'UTC';
+
+ALTER TABLE "user_roles"
+    ALTER COLUMN "created_at" TYPE timestamptz USING "created_at" AT TIME ZONE 'UTC',
+    ALTER COLUMN "updated_at" TYPE timestamptz USING "updated_at" AT TIME ZONE 'UTC',
+    ALTER COLUMN "deleted_at" TYPE timestamptz USING "deleted_at" AT TIME ZONE 'UTC';
+
+ALTER TABLE "refresh_tokens"
+    ALTER COLUMN "expiration" TYPE timestamptz USING "expiration" AT TIME ZONE 'UTC',
+    ALTER COLUMN "created_at" TYPE timestamptz USING "created_at" AT TIME ZONE 'UTC',
+    ALTER COLUMN "updated_at" TYPE timestamptz USING "updated_at" AT TIME ZONE 'UTC',
+    ALTER COLUMN "deleted_at" TYPE timestamptz USING "deleted_at" AT TIME ZONE 'UTC';
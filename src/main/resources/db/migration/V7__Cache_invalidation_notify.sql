@@ -0,0 +1,32 @@
+-- Announce changes to cached rows on the cache_invalidation channel, so the app
+-- evicts user:<id> and role:<id> whoever made the change (migrations, admin SQL,
+-- other services). Payloads are '<kind>:<id>'. NOTIFY is delivered on commit,
+-- and identical payloads within one transaction are folded into one.
+
+-- TG_ARGV[0] is the payload kind, TG_ARGV[1] the id column to send.
+CREATE OR REPLACE FUNCTION "notify_cache_invalidation"() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        PERFORM pg_notify('cache_invalidation', TG_ARGV[0] || ':' || (to_jsonb(OLD) ->> TG_ARGV[1]));
+    END IF;
+    IF TG_OP <> 'DELETE' THEN
+        PERFORM pg_notify('cache_invalidation', TG_ARGV[0] || ':' || (to_jsonb(NEW) ->> TG_ARGV[1]));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- users: a new user has nothing cached yet
+CREATE TRIGGER "trg_users_cache_invalidation"
+    AFTER UPDATE OR DELETE ON "users"
+    FOR EACH ROW EXECUTE FUNCTION "notify_cache_invalidation"('user', 'user_id');
+
+-- roles: inserts too, since every node keeps the active roles in memory
+CREATE TRIGGER "trg_roles_cache_invalidation"
+    AFTER INSERT OR UPDATE OR DELETE ON "roles"
+    FOR EACH ROW EXECUTE FUNCTION "notify_cache_invalidation"('role', 'role_id');
+
+-- user_roles: cached users carry their roles
+CREATE TRIGGER "trg_user_roles_cache_invalidation"
+    AFTER INSERT OR UPDATE OR DELETE ON "user_roles"
+    FOR EACH ROW EXECUTE FUNCTION "notify_cache_invalidation"('user', 'user_id');
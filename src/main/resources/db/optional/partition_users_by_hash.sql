@@ -0,0 +1,128 @@
+-- Optional: hash-partition users and user_roles by user_id.
+-- Not a Flyway migration (Flyway only reads db/migration); run it by hand in a
+-- maintenance window, after V7, once the tables are large enough for vacuum and
+-- index size to matter. See "Partitioning users" in the README before running.
+--
+-- A unique index on a partitioned table must contain the partition key, so
+-- users.email can no longer be UNIQUE. Email uniqueness moves to user_emails,
+-- claimed by a trigger that raises unique_violation (23505) as before.
+-- ON CONFLICT (email) has no index to target afterwards: start the application
+-- with DB_USER_EMAILS_TABLE=true so bulk inserts claim emails in user_emails
+-- first (see "Partitioning users" in the README).
+
+BEGIN;
+
+LOCK TABLE "users", "user_roles", "refresh_tokens" IN ACCESS EXCLUSIVE MODE;
+
+-- users ----------------------------------------------------------------------
+
+CREATE TABLE "users_partitioned" (LIKE "users" INCLUDING DEFAULTS)
+    PARTITION BY HASH ("user_id");
+ALTER TABLE "users_partitioned" ADD PRIMARY KEY ("user_id");
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF "users_partitioned" FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+            'users_p' || i, i);
+    END LOOP;
+END $$;
+
+INSERT INTO "users_partitioned" SELECT * FROM "users";
+
+-- Same listing indexes as V5, created per partition
+CREATE INDEX "idx_users_p_active_created_at" ON "users_partitioned" ("created_at" DESC, "user_id")
+    INCLUDE ("firstname", "lastname", "email", "updated_at", "deleted_at")
+    WHERE "deleted_at" IS NULL;
+CREATE INDEX "idx_users_p_trashed_created_at" ON "users_partitioned" ("created_at" DESC, "user_id")
+    INCLUDE ("firstname", "lastname", "email", "updated_at", "deleted_at")
+    WHERE "deleted_at" IS NOT NULL;
+CREATE INDEX "idx_users_p_email" ON "users_partitioned" ("email");
+
+-- email uniqueness ---------------------------------------------------------
+
+CREATE TABLE "user_emails" (
+    "email" varchar(100) PRIMARY KEY,
+    "user_id" INT NOT NULL
+);
+
+INSERT INTO "user_emails" ("email", "user_id") SELECT "email", "user_id" FROM "users";
+
+CREATE OR REPLACE FUNCTION "claim_user_email"() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        -- Bulk inserts claim their emails before inserting the rows.
+        IF NOT EXISTS (
+            SELECT 1 FROM "user_emails" WHERE "email" = NEW."email" AND "user_id" = NEW."user_id"
+        ) THEN
+            INSERT INTO "user_emails" ("email", "user_id") VALUES (NEW."email", NEW."user_id");
+        END IF;
+    ELSIF TG_OP = 'UPDATE' AND NEW."email" IS DISTINCT FROM OLD."email" THEN
+        UPDATE "user_emails" SET "email" = NEW."email" WHERE "email" = OLD."email";
+    ELSIF TG_OP = 'DELETE' THEN
+        DELETE FROM "user_emails" WHERE "email" = OLD."email";
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER "trg_users_claim_email"
+    AFTER INSERT OR UPDATE OF "email" OR DELETE ON "users_partitioned"
+    FOR EACH ROW EXECUTE FUNCTION "claim_user_email"();
+
+-- user_roles, co-partitioned so joins on user_id can run partition-wise -------
+
+CREATE TABLE "user_roles_partitioned" (LIKE "user_roles" INCLUDING DEFAULTS)
+    PARTITION BY HASH ("user_id");
+ALTER TABLE "user_roles_partitioned" ADD PRIMARY KEY ("user_role_id", "user_id");
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF "user_roles_partitioned" FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+            'user_roles_p' || i, i);
+    END LOOP;
+END $$;
+
+INSERT INTO "user_roles_partitioned" SELECT * FROM "user_roles";
+
+CREATE INDEX "idx_user_roles_p_user_id_role_id" ON "user_roles_partitioned" ("user_id", "role_id");
+CREATE INDEX "idx_user_roles_p_role_id" ON "user_roles_partitioned" ("role_id");
+
+ALTER TABLE "user_roles_partitioned"
+    ADD FOREIGN KEY ("user_id") REFERENCES "users_partitioned" ("user_id") ON DELETE CASCADE,
+    ADD FOREIGN KEY ("role_id") REFERENCES "roles" ("role_id") ON DELETE CASCADE;
+
+-- swap -----------------------------------------------------------------------
+
+ALTER TABLE "refresh_tokens" DROP CONSTRAINT "refresh_tokens_user_id_fkey";
+ALTER TABLE "refresh_tokens"
+    ADD CONSTRAINT "refresh_tokens_user_id_fkey"
+    FOREIGN KEY ("user_id") REFERENCES "users_partitioned" ("user_id") ON DELETE CASCADE;
+
+DROP TRIGGER "trg_users_cache_invalidation" ON "users";
+DROP TRIGGER "trg_user_roles_cache_invalidation" ON "user_roles";
+
+ALTER TABLE "users" RENAME TO "users_unpartitioned";
+ALTER TABLE "user_roles" RENAME TO "user_roles_unpartitioned";
+ALTER TABLE "users_partitioned" RENAME TO "users";
+ALTER TABLE "user_roles_partitioned" RENAME TO "user_roles";
+
+ALTER SEQUENCE "users_user_id_seq" OWNED BY "users"."user_id";
+ALTER SEQUENCE "user_roles_user_role_id_seq" OWNED BY "user_roles"."user_role_id";
+
+-- Same notifications as V7
+CREATE TRIGGER "trg_users_cache_invalidation"
+    AFTER UPDATE OR DELETE ON "users"
+    FOR EACH ROW EXECUTE FUNCTION "notify_cache_invalidation"('user', 'user_id');
+CREATE TRIGGER "trg_user_roles_cache_invalidation"
+    AFTER INSERT OR UPDATE OR DELETE ON "user_roles"
+    FOR EACH ROW EXECUTE FUNCTION "notify_cache_invalidation"('user', 'user_id');
+
+COMMIT;
+
+-- Once the application has been verified against the new layout:
+--   DROP TABLE "user_roles_unpartitioned";
+--   DROP TABLE "users_unpartitioned";
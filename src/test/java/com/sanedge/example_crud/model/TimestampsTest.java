@@ -0,0 +1,50 @@
+package com.sanedge.example_crud.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class TimestampsTest {
+
+  private static Instant read(Object value) {
+    return Timestamps.fromJson(new JsonObject().put("createdAt", value), "createdAt");
+  }
+
+  @Test
+  void epoch_millis_round_trip() {
+    Instant instant = Instant.parse("2024-01-01T12:00:00.123Z");
+    JsonObject json = new JsonObject();
+
+    Timestamps.toJson(json, "createdAt", instant);
+
+    assertEquals(instant, Timestamps.fromJson(json, "createdAt"));
+  }
+
+  @Test
+  void legacy_sql_timestamp_text_is_read_as_utc() {
+    assertEquals(Instant.parse("2024-01-01T12:00:00Z"), read("2024-01-01 12:00:00.0"));
+    assertEquals(Instant.parse("2024-01-01T12:00:00.123456Z"), read("2024-01-01 12:00:00.123456"));
+  }
+
+  @Test
+  void legacy_local_date_time_text_is_read_as_utc() {
+    assertEquals(Instant.parse("2024-01-01T12:00:00.123Z"), read("2024-01-01T12:00:00.123"));
+  }
+
+  @Test
+  void iso_instants_are_accepted() {
+    assertEquals(Instant.parse("2024-01-01T12:00:00Z"), read("2024-01-01T12:00:00Z"));
+  }
+
+  @Test
+  void unreadable_values_are_null() {
+    assertNull(read("yesterday"));
+    assertNull(read(""));
+    assertNull(Timestamps.fromJson(new JsonObject(), "createdAt"));
+  }
+}
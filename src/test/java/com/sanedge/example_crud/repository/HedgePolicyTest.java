@@ -0,0 +1,119 @@
+package com.sanedge.example_crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class HedgePolicyTest {
+
+  private static final String OP = "UserRepository.getUserById";
+
+  private static HedgePolicy policy(double percentile, long minDelayMs, double budgetPercent, int minSamples) {
+    return new HedgePolicy(true, percentile, minDelayMs, budgetPercent, minSamples);
+  }
+
+  private static void record(HedgePolicy policy, long latencyMs, int times) {
+    for (int i = 0; i < times; i++) {
+      policy.recordLatency(OP, latencyMs);
+    }
+  }
+
+  @Test
+  void no_delay_until_min_samples() {
+    HedgePolicy policy = policy(95, 1, 5, 100);
+
+    record(policy, 10, 99);
+    assertEquals(-1, policy.delayMs(OP));
+
+    record(policy, 10, 1);
+    assertEquals(10, policy.delayMs(OP));
+  }
+
+  @Test
+  void delay_is_the_configured_percentile() {
+    HedgePolicy policy = policy(95, 1, 5, 100);
+
+    for (long latency = 1; latency <= 100; latency++) {
+      policy.recordLatency(OP, latency);
+    }
+
+    assertEquals(95, policy.delayMs(OP));
+  }
+
+  @Test
+  void delay_never_drops_below_the_minimum() {
+    HedgePolicy policy = policy(95, 5, 5, 100);
+
+    record(policy, 1, 100);
+
+    assertEquals(5, policy.delayMs(OP));
+  }
+
+  @Test
+  void old_samples_roll_out_of_the_window() {
+    HedgePolicy policy = policy(50, 1, 5, 100);
+
+    record(policy, 1000, 256);
+    assertEquals(1000, policy.delayMs(OP));
+
+    record(policy, 10, 256);
+    assertEquals(10, policy.delayMs(OP));
+  }
+
+  @Test
+  void censored_samples_count_towards_the_percentile() {
+    HedgePolicy policy = policy(95, 1, 5, 100);
+
+    record(policy, 10, 90);
+    for (int i = 0; i < 10; i++) {
+      policy.recordCensored(OP, 200);
+    }
+
+    assertEquals(200, policy.delayMs(OP));
+  }
+
+  @Test
+  void budget_earns_one_hedge_per_share_of_reads() {
+    HedgePolicy policy = policy(95, 1, 25, 100);
+
+    record(policy, 10, 3);
+    assertFalse(policy.tryAcquire(OP));
+
+    record(policy, 10, 1);
+    assertTrue(policy.tryAcquire(OP));
+    assertFalse(policy.tryAcquire(OP));
+  }
+
+  @Test
+  void censored_samples_earn_no_budget() {
+    HedgePolicy policy = policy(95, 1, 100, 100);
+
+    policy.recordCensored(OP, 50);
+
+    assertFalse(policy.tryAcquire(OP));
+  }
+
+  @Test
+  void budget_is_capped() {
+    HedgePolicy policy = policy(95, 1, 100, 100);
+
+    record(policy, 10, 50);
+
+    for (int i = 0; i < 10; i++) {
+      assertTrue(policy.tryAcquire(OP));
+    }
+    assertFalse(policy.tryAcquire(OP));
+  }
+
+  @Test
+  void operations_are_tracked_separately() {
+    HedgePolicy policy = policy(95, 1, 100, 100);
+
+    record(policy, 10, 100);
+
+    assertEquals(-1, policy.delayMs("RoleRepository.getRoleById"));
+    assertFalse(policy.tryAcquire("RoleRepository.getRoleById"));
+  }
+}
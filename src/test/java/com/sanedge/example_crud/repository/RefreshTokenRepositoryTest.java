@@ -0,0 +1,287 @@
+package com.sanedge.example_crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sanedge.example_crud.model.RefreshToken;
+import com.sanedge.example_crud.service.RedisService;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+
+public class RefreshTokenRepositoryTest {
+
+  private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+  private FakeRedis redis;
+  private FakeDatabase database;
+  private RefreshTokenRepository repository;
+  private List<String> calls;
+
+  @BeforeEach
+  void setUp() {
+    calls = new ArrayList<>();
+    redis = new FakeRedis();
+    database = new FakeDatabase();
+    repository = new RefreshTokenRepository(null, redis) {
+      @Override
+      Future<RefreshToken> findByTokenInDatabase(String token) {
+        calls.add("db.find " + token);
+        return database.failure != null
+            ? Future.failedFuture(database.failure)
+            : Future.succeededFuture(database.rows.get(token));
+      }
+
+      @Override
+      Future<Void> deleteTokenRow(String token) {
+        calls.add("db.delete " + token);
+        if (database.failure != null) {
+          return Future.failedFuture(database.failure);
+        }
+        database.rows.remove(token);
+        return Future.succeededFuture();
+      }
+
+      @Override
+      Future<Void> deleteUserRows(Integer userId) {
+        calls.add("db.deleteUser " + userId);
+        if (database.failure != null) {
+          return Future.failedFuture(database.failure);
+        }
+        database.rows.values().removeIf(rt -> rt.getUserId().equals(userId));
+        return Future.succeededFuture();
+      }
+    };
+  }
+
+  private RefreshToken token(String value, Instant expiration) {
+    return RefreshToken.builder()
+        .refreshTokenId(1)
+        .userId(42)
+        .token(value)
+        .expiration(expiration)
+        .createdAt(NOW.minus(Duration.ofDays(1)))
+        .updatedAt(NOW.minus(Duration.ofDays(1)))
+        .build();
+  }
+
+  private RefreshToken liveToken(String value) {
+    // Cached entries hold epoch millis.
+    return token(value, Instant.ofEpochMilli(System.currentTimeMillis()).plus(Duration.ofDays(7)));
+  }
+
+  @Test
+  void cache_ttl_matches_remaining_lifetime() {
+    RefreshToken rt = token("token-value", NOW.plus(Duration.ofDays(7)));
+
+    assertEquals(Duration.ofDays(7), RefreshTokenRepository.cacheTtl(rt, NOW, null));
+  }
+
+  @Test
+  void rehydrated_ttl_is_capped() {
+    RefreshToken rt = token("token-value", NOW.plus(Duration.ofDays(7)));
+
+    assertEquals(RefreshTokenRepository.REHYDRATE_TTL,
+        RefreshTokenRepository.cacheTtl(rt, NOW, RefreshTokenRepository.REHYDRATE_TTL));
+  }
+
+  @Test
+  void expired_tokens_are_never_cached() {
+    RefreshToken rt = token("token-value", NOW.minus(Duration.ofMinutes(1)));
+
+    assertEquals(Duration.ZERO, RefreshTokenRepository.cacheTtl(rt, NOW, null));
+    assertFalse(RefreshTokenRepository.isLive(rt, NOW));
+  }
+
+  @Test
+  void cached_entry_round_trips_through_json() {
+    RefreshToken rt = token("token-value", NOW.plus(Duration.ofDays(7)));
+
+    RefreshToken decoded = RefreshToken.fromJson(rt.toJson());
+
+    assertEquals(rt, decoded);
+    assertTrue(RefreshTokenRepository.isLive(decoded, NOW));
+  }
+
+  @Test
+  void redis_miss_rehydrates_from_database_with_capped_ttl() {
+    RefreshToken rt = liveToken("abc");
+    database.rows.put("abc", rt);
+
+    RefreshToken found = repository.findByToken("abc").result();
+
+    assertEquals(rt, found);
+    assertEquals(List.of("db.find abc"), calls);
+    assertEquals(rt, RefreshToken.fromJson(redis.json("refresh_token:abc")));
+    assertEquals(RefreshTokenRepository.REHYDRATE_TTL, redis.ttls.get("refresh_token:abc"));
+    assertEquals(Set.of("abc"), redis.sets.get("refresh_token:user:42"));
+  }
+
+  @Test
+  void redis_hit_skips_the_database() {
+    RefreshToken rt = liveToken("abc");
+    redis.values.put("refresh_token:abc", rt.toJson().encode());
+
+    assertEquals(rt, repository.findByToken("abc").result());
+    assertTrue(calls.isEmpty());
+  }
+
+  @Test
+  void expired_cache_entry_is_checked_against_the_database() {
+    redis.values.put("refresh_token:abc", token("abc", Instant.now().minusSeconds(1)).toJson().encode());
+
+    assertNull(repository.findByToken("abc").result());
+    assertEquals(List.of("db.find abc"), calls);
+  }
+
+  @Test
+  void redis_failure_falls_back_to_the_database() {
+    RefreshToken rt = liveToken("abc");
+    database.rows.put("abc", rt);
+    redis.failure = new RuntimeException("redis down");
+
+    Future<RefreshToken> found = repository.findByToken("abc");
+
+    assertTrue(found.succeeded());
+    assertEquals(rt, found.result());
+  }
+
+  @Test
+  void database_miss_caches_nothing() {
+    assertNull(repository.findByToken("missing").result());
+    assertTrue(redis.values.isEmpty());
+  }
+
+  @Test
+  void delete_by_token_evicts_after_the_database_delete() {
+    RefreshToken rt = liveToken("abc");
+    database.rows.put("abc", rt);
+    redis.values.put("refresh_token:abc", rt.toJson().encode());
+
+    assertTrue(repository.deleteByToken("abc").succeeded());
+
+    assertEquals(List.of("db.delete abc", "redis.del [refresh_token:abc]"), calls);
+    assertFalse(redis.values.containsKey("refresh_token:abc"));
+  }
+
+  @Test
+  void failed_database_delete_leaves_the_cache_alone() {
+    redis.values.put("refresh_token:abc", liveToken("abc").toJson().encode());
+    database.failure = new RuntimeException("db down");
+
+    assertTrue(repository.deleteByToken("abc").failed());
+    assertTrue(redis.values.containsKey("refresh_token:abc"));
+  }
+
+  @Test
+  void failed_eviction_fails_the_delete() {
+    database.rows.put("abc", liveToken("abc"));
+    redis.failure = new RuntimeException("redis down");
+
+    assertTrue(repository.deleteByToken("abc").failed());
+  }
+
+  @Test
+  void delete_by_user_evicts_every_indexed_token() {
+    for (String value : List.of("a", "b")) {
+      RefreshToken rt = liveToken(value);
+      database.rows.put(value, rt);
+      redis.values.put("refresh_token:" + value, rt.toJson().encode());
+      redis.sets.computeIfAbsent("refresh_token:user:42", k -> new LinkedHashSet<>()).add(value);
+    }
+
+    assertTrue(repository.deleteByUserId(42).succeeded());
+
+    assertEquals("db.deleteUser 42", calls.get(0));
+    assertTrue(database.rows.isEmpty());
+    assertTrue(redis.values.isEmpty());
+    assertFalse(redis.sets.containsKey("refresh_token:user:42"));
+  }
+
+  private static final class FakeDatabase {
+    final Map<String, RefreshToken> rows = new HashMap<>();
+    RuntimeException failure;
+  }
+
+  private final class FakeRedis extends RedisService {
+    final Map<String, String> values = new HashMap<>();
+    final Map<String, Duration> ttls = new HashMap<>();
+    final Map<String, Set<String>> sets = new HashMap<>();
+    RuntimeException failure;
+
+    FakeRedis() {
+      super(null, OpenTelemetry.noop());
+    }
+
+    JsonObject json(String key) {
+      return new JsonObject(values.get(key));
+    }
+
+    @Override
+    public Future<String> get(String key) {
+      return failure != null ? Future.failedFuture(failure) : Future.succeededFuture(values.get(key));
+    }
+
+    @Override
+    public Future<String> set(String key, String value, Duration ttl) {
+      if (failure != null) {
+        return Future.failedFuture(failure);
+      }
+      values.put(key, value);
+      ttls.put(key, ttl);
+      return Future.succeededFuture("OK");
+    }
+
+    @Override
+    public Future<Void> addToSet(String key, String member, Duration ttl) {
+      if (failure != null) {
+        return Future.failedFuture(failure);
+      }
+      sets.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(member);
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public Future<List<String>> members(String key) {
+      if (failure != null) {
+        return Future.failedFuture(failure);
+      }
+      return Future.succeededFuture(new ArrayList<>(sets.getOrDefault(key, Set.of())));
+    }
+
+    @Override
+    public Future<Long> delete(String key) {
+      return delete(List.of(key));
+    }
+
+    @Override
+    public Future<Long> delete(List<String> keys) {
+      calls.add("redis.del " + keys);
+      if (failure != null) {
+        return Future.failedFuture(failure);
+      }
+      long deleted = 0;
+      for (String key : keys) {
+        if (values.remove(key) != null | sets.remove(key) != null) {
+          deleted++;
+        }
+      }
+      return Future.succeededFuture(deleted);
+    }
+  }
+}
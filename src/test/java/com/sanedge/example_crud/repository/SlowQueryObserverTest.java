@@ -0,0 +1,33 @@
+package com.sanedge.example_crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class SlowQueryObserverTest {
+
+  @Test
+  void redacts_literals_in_nested_conditions() {
+    JsonObject plan = new JsonObject()
+        .put("Node Type", "Nested Loop")
+        .put("Actual Rows", 1)
+        .put("Plans", new JsonArray()
+            .add(new JsonObject()
+                .put("Node Type", "Index Scan")
+                .put("Index Cond", "((email)::text = 'jane@example.com'::text)"))
+            .add(new JsonObject()
+                .put("Node Type", "Seq Scan")
+                .put("Filter", "((token)::text = 'it''s-secret'::text)")));
+
+    JsonObject redacted = SlowQueryObserver.redact(plan);
+
+    JsonArray children = redacted.getJsonArray("Plans");
+    assertEquals("((email)::text = '?'::text)", children.getJsonObject(0).getString("Index Cond"));
+    assertEquals("((token)::text = '?'::text)", children.getJsonObject(1).getString("Filter"));
+    assertEquals("Nested Loop", redacted.getString("Node Type"));
+    assertEquals(1, redacted.getInteger("Actual Rows").intValue());
+  }
+}